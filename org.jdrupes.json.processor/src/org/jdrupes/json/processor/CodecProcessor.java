@@ -0,0 +1,418 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates a `org.jdrupes.json.BeanCodec` for each class annotated
+ * with `org.jdrupes.json.GenerateCodec`. The processor is provided
+ * as a separate artifact (`org.jdrupes.json:json-processor`), which
+ * registers it as service. It is therefore run by the compiler if
+ * the artifact is on the processor path. It is not needed at runtime.
+ *
+ * The properties are derived from the public methods following
+ * the same rules as the {@link java.beans.Introspector}.
+ */
+@SupportedAnnotationTypes(CodecProcessor.ANNOTATION)
+public class CodecProcessor extends AbstractProcessor {
+
+    /* default */ static final String ANNOTATION
+        = "org.jdrupes.json.GenerateCodec";
+    private static final String SUFFIX = "_JsonCodec";
+    private static final int READABLE = 1;
+    private static final int WRITABLE = 2;
+    private static final int TRANSIENT = 4;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations,
+            RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv
+                .getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    error(element, "Codecs can only be generated for classes");
+                    continue;
+                }
+                TypeElement bean = (TypeElement) element;
+                if (bean.getModifiers().contains(Modifier.PRIVATE)
+                    || bean.getNestingKind() == NestingKind.MEMBER
+                        && !bean.getModifiers().contains(Modifier.STATIC)) {
+                    error(bean, "Codecs cannot be generated for private"
+                        + " or inner classes");
+                    continue;
+                }
+                try {
+                    generate(bean);
+                } catch (IOException e) {
+                    error(bean, "Cannot write codec: " + e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+            message, element);
+    }
+
+    /**
+     * The information about a property, collected from the
+     * read and write methods.
+     */
+    @SuppressWarnings("PMD.DataClass")
+    private static class Property {
+        public TypeMirror type;
+        public ExecutableElement getter;
+        public final List<ExecutableElement> setters = new ArrayList<>();
+        public ExecutableElement setter;
+        public boolean isTransient;
+    }
+
+    @SuppressWarnings({ "PMD.CognitiveComplexity",
+        "PMD.AvoidInstantiatingObjectsInLoops" })
+    private Map<String, Property> properties(TypeElement bean) {
+        DeclaredType beanType = (DeclaredType) bean.asType();
+        Map<String, Property> props = new TreeMap<>();
+        for (Element member : processingEnv.getElementUtils()
+            .getAllMembers(bean)) {
+            if (member.getKind() != ElementKind.METHOD
+                || !member.getModifiers().contains(Modifier.PUBLIC)
+                || member.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            TypeElement declaring = (TypeElement) member.getEnclosingElement();
+            // Like Introspector, ignore methods from Object and
+            // (default) methods from interfaces.
+            if (declaring.getKind().isInterface() || declaring
+                .getQualifiedName().contentEquals("java.lang.Object")) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) member;
+            ExecutableType methodType = (ExecutableType) processingEnv
+                .getTypeUtils().asMemberOf(beanType, method);
+            String name = method.getSimpleName().toString();
+            int params = method.getParameters().size();
+            TypeMirror result = methodType.getReturnType();
+            String propName;
+            if (params == 0 && name.startsWith("get") && name.length() > 3
+                && result.getKind() != TypeKind.VOID) {
+                propName = decapitalize(name.substring(3));
+                Property prop = props.computeIfAbsent(propName,
+                    k -> new Property());
+                if (prop.getter == null) {
+                    prop.getter = method;
+                    prop.type = erasure(result);
+                }
+            } else if (params == 0 && name.startsWith("is")
+                && name.length() > 2 && result.getKind() == TypeKind.BOOLEAN) {
+                // Preferred over "get"
+                propName = decapitalize(name.substring(2));
+                Property prop = props.computeIfAbsent(propName,
+                    k -> new Property());
+                prop.getter = method;
+                prop.type = result;
+            } else if (params == 1 && name.startsWith("set")
+                && name.length() > 3 && result.getKind() == TypeKind.VOID) {
+                propName = decapitalize(name.substring(3));
+                props.computeIfAbsent(propName, k -> new Property()).setters
+                    .add(method);
+            } else {
+                continue;
+            }
+            if (isTransient(method)) {
+                props.get(propName).isTransient = true;
+            }
+        }
+
+        // Match setters with getters
+        for (Property prop : props.values()) {
+            for (ExecutableElement setter : prop.setters) {
+                TypeMirror paramType = erasure(((ExecutableType) processingEnv
+                    .getTypeUtils().asMemberOf(beanType, setter))
+                        .getParameterTypes().get(0));
+                if (prop.type == null) {
+                    prop.type = paramType;
+                    prop.setter = setter;
+                    break;
+                }
+                if (processingEnv.getTypeUtils().isSameType(prop.type,
+                    paramType)) {
+                    prop.setter = setter;
+                    break;
+                }
+            }
+        }
+        props.values().removeIf(p -> p.getter == null && p.setter == null);
+        return props;
+    }
+
+    private TypeMirror erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type);
+    }
+
+    private static boolean isTransient(ExecutableElement method) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if (!((TypeElement) mirror.getAnnotationType().asElement())
+                .getQualifiedName().contentEquals("java.beans.Transient")) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement,
+                    ? extends AnnotationValue> e : mirror.getElementValues()
+                        .entrySet()) {
+                if ("value".contentEquals(e.getKey().getSimpleName())) {
+                    return (Boolean) e.getValue().getValue();
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Same as {@link java.beans.Introspector#decapitalize(String)}.
+     *
+     * @param name the name
+     * @return the decapitalized name
+     */
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1))
+            && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    private static Map<ExecutableElement, List<String>>
+            constructorProperties(TypeElement bean) {
+        Map<ExecutableElement, List<String>> result = new LinkedHashMap<>();
+        for (Element member : bean.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.CONSTRUCTOR
+                || !member.getModifiers().contains(Modifier.PUBLIC)) {
+                continue;
+            }
+            for (AnnotationMirror mirror : member.getAnnotationMirrors()) {
+                if (!((TypeElement) mirror.getAnnotationType().asElement())
+                    .getQualifiedName()
+                    .contentEquals("java.beans.ConstructorProperties")) {
+                    continue;
+                }
+                List<String> names = new ArrayList<>();
+                for (AnnotationValue value : mirror.getElementValues()
+                    .values()) {
+                    @SuppressWarnings("unchecked")
+                    List<? extends AnnotationValue> values
+                        = (List<? extends AnnotationValue>) value.getValue();
+                    for (AnnotationValue name : values) {
+                        names.add((String) name.getValue());
+                    }
+                }
+                result.put((ExecutableElement) member, names);
+            }
+        }
+        return result;
+    }
+
+    private static boolean hasDefaultConstructor(TypeElement bean) {
+        return bean.getEnclosedElements().stream()
+            .filter(m -> m.getKind() == ElementKind.CONSTRUCTOR)
+            .map(m -> (ExecutableElement) m)
+            .anyMatch(c -> c.getParameters().isEmpty()
+                && !c.getModifiers().contains(Modifier.PRIVATE));
+    }
+
+    @SuppressWarnings({ "PMD.CognitiveComplexity", "PMD.NcssCount" })
+    private void generate(TypeElement bean) throws IOException {
+        String pkg = processingEnv.getElementUtils().getPackageOf(bean)
+            .getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils()
+            .getBinaryName(bean).toString();
+        String codecName = (pkg.isEmpty() ? binaryName
+            : binaryName.substring(pkg.length() + 1)).replace('$', '_')
+            + SUFFIX;
+        String beanName = erasure(bean.asType()).toString();
+        Map<String, Property> props = properties(bean);
+        List<String> names = new ArrayList<>(props.keySet());
+        Map<ExecutableElement, List<String>> constructors
+            = constructorProperties(bean);
+        boolean defaultConstructor = hasDefaultConstructor(bean);
+
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler()
+            .createSourceFile((pkg.isEmpty() ? "" : pkg + ".") + codecName,
+                bean)
+            .openWriter())) {
+            if (!pkg.isEmpty()) {
+                out.println("package " + pkg + ";");
+                out.println();
+            }
+            out.println("@javax.annotation.processing.Generated(\""
+                + getClass().getName() + "\")");
+            out.println("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })");
+            out.println("public final class " + codecName
+                + " extends org.jdrupes.json.BeanCodec<" + beanName + "> {");
+            out.println();
+
+            // Constructor
+            out.println("    public " + codecName + "() {");
+            out.println("        super(" + beanName + ".class,");
+            out.println("            new String[] { " + names.stream()
+                .map(n -> "\"" + n + "\"").collect(Collectors.joining(", "))
+                + " },");
+            out.println("            new Class<?>[] { " + props.values()
+                .stream().map(p -> p.type + ".class")
+                .collect(Collectors.joining(", ")) + " },");
+            out.println("            new int[] { " + props.values().stream()
+                .map(p -> String.valueOf((p.getter == null ? 0 : READABLE)
+                    | (p.setter == null ? 0 : WRITABLE)
+                    | (p.isTransient ? TRANSIENT : 0)))
+                .collect(Collectors.joining(", ")) + " },");
+            out.print("            " + defaultConstructor);
+            for (List<String> cps : constructors.values()) {
+                out.print(",\n            new String[] { " + cps.stream()
+                    .map(n -> "\"" + n + "\"")
+                    .collect(Collectors.joining(", ")) + " }");
+            }
+            out.println(");");
+            out.println("    }");
+            out.println();
+
+            // Getter
+            out.println("    @Override");
+            out.println("    public Object get(" + beanName
+                + " bean, int index) {");
+            out.println("        switch (index) {");
+            for (int i = 0; i < names.size(); i++) {
+                Property prop = props.get(names.get(i));
+                if (prop.getter != null) {
+                    out.println("        case " + i + ": return bean."
+                        + prop.getter.getSimpleName() + "();");
+                }
+            }
+            out.println("        default: throw new "
+                + "IndexOutOfBoundsException(\"" + beanName
+                + " has no readable property with index \" + index);");
+            out.println("        }");
+            out.println("    }");
+            out.println();
+
+            // Setter
+            out.println("    @Override");
+            out.println("    public void set(" + beanName
+                + " bean, int index, Object value) {");
+            out.println("        switch (index) {");
+            for (int i = 0; i < names.size(); i++) {
+                Property prop = props.get(names.get(i));
+                if (prop.setter != null) {
+                    out.println("        case " + i + ": bean."
+                        + prop.setter.getSimpleName() + "("
+                        + unbox(prop.type, "value") + "); return;");
+                }
+            }
+            out.println("        default: throw new "
+                + "IndexOutOfBoundsException(\"" + beanName
+                + " has no writable property with index \" + index);");
+            out.println("        }");
+            out.println("    }");
+
+            // Bean creation
+            if (defaultConstructor) {
+                out.println();
+                out.println("    @Override");
+                out.println("    public " + beanName + " newInstance() {");
+                out.println("        return new " + beanName + "();");
+                out.println("    }");
+            }
+            if (!constructors.isEmpty()) {
+                out.println();
+                out.println("    @Override");
+                out.println("    public " + beanName
+                    + " newInstance(int constructor, Object... args) {");
+                out.println("        switch (constructor) {");
+                int constructor = 0;
+                for (ExecutableElement con : constructors.keySet()) {
+                    List<String> args = new ArrayList<>();
+                    List<? extends TypeMirror> paramTypes
+                        = ((ExecutableType) con.asType()).getParameterTypes();
+                    for (int i = 0; i < paramTypes.size(); i++) {
+                        args.add(unbox(erasure(paramTypes.get(i)),
+                            "args[" + i + "]"));
+                    }
+                    out.println("        case " + constructor++ + ": return new "
+                        + beanName + "(" + String.join(", ", args) + ");");
+                }
+                out.println("        default: throw new "
+                    + "IndexOutOfBoundsException(\"" + beanName
+                    + " has no constructor with index \" + constructor);");
+                out.println("        }");
+                out.println("    }");
+            }
+            out.println("}");
+        }
+    }
+
+    private static String unbox(TypeMirror type, String expr) {
+        switch (type.getKind()) {
+        case BOOLEAN:
+            return "(Boolean) " + expr;
+        case CHAR:
+            return "(Character) " + expr;
+        case BYTE:
+        case SHORT:
+        case INT:
+        case LONG:
+        case FLOAT:
+        case DOUBLE:
+            return "((Number) " + expr + ")." + type + "Value()";
+        default:
+            return "(" + type + ") " + expr;
+        }
+    }
+}
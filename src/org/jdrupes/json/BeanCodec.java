@@ -0,0 +1,262 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+import java.beans.ConstructorProperties;
+import java.beans.Introspector;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Provides access to the properties of a JavaBean without 
+ * reflection. Implementations are generated by the annotation
+ * processor from the artifact `org.jdrupes.json:json-processor`
+ * for classes annotated with {@link GenerateCodec}. The generated 
+ * class is put in the package of the bean and named after the 
+ * bean's binary name (without the package and with "$" replaced
+ * by "_") with the suffix "_JsonCodec".
+ * 
+ * The properties are the same as those derived by the 
+ * {@link Introspector} and, like these, ordered by name. Therefore, 
+ * the JSON produced and the beans created are the same as 
+ * when using reflection.
+ *
+ * @param <T> the bean type
+ */
+public abstract class BeanCodec<T> implements PropertySetter {
+
+    /** Flags a property with a read method. */
+    public static final int READABLE = 1;
+    /** Flags a property with a write method. */
+    public static final int WRITABLE = 2;
+    /** Flags a property with a {@link java.beans.Transient} method. */
+    public static final int TRANSIENT = 4;
+
+    /** The suffix appended to the bean's name. */
+    public static final String SUFFIX = "_JsonCodec";
+
+    @SuppressWarnings({ "PMD.FieldNamingConventions",
+        "PMD.VariableNamingConventions" })
+    private static final ClassValue<Optional<BeanCodec<?>>> codecs
+        = new ClassValue<>() {
+            @Override
+            protected Optional<BeanCodec<?>> computeValue(Class<?> type) {
+                return findCodec(type);
+            }
+        };
+
+    private final Class<T> beanClass;
+    private final String[] names;
+    private final Class<?>[] types;
+    private final int[] flags;
+    private final boolean defaultConstructor;
+    private final String[][] constructorProperties;
+    private final int[] constructorOrder;
+    private final PropertyTable table;
+
+    /**
+     * Creates a new codec. 
+     *
+     * @param beanClass the bean class
+     * @param names the names of the properties, sorted
+     * @param types the types of the properties
+     * @param flags the flags of the properties
+     * @param defaultConstructor whether the bean has a constructor
+     * without arguments, i.e. whether {@link #newInstance()} is
+     * supported
+     * @param constructorProperties the values of the 
+     * {@link ConstructorProperties} annotations of the public 
+     * constructors, see {@link #newInstance(int, Object...)}
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    protected BeanCodec(Class<T> beanClass, String[] names,
+            Class<?>[] types, int[] flags, boolean defaultConstructor,
+            String[]... constructorProperties) {
+        this.beanClass = beanClass;
+        this.names = names;
+        this.types = types;
+        this.flags = flags;
+        this.defaultConstructor = defaultConstructor;
+        this.constructorProperties = constructorProperties;
+        table = new PropertyTable(names, types);
+        // Constructors with most parameters first
+        constructorOrder = IntStream.range(0, constructorProperties.length)
+            .boxed().sorted(Comparator.comparingInt(
+                (Integer i) -> constructorProperties[i].length).reversed())
+            .mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns the value of the property with the given index.
+     *
+     * @param bean the bean
+     * @param index the index of the property
+     * @return the value
+     */
+    public abstract Object get(T bean, int index);
+
+    /**
+     * Sets the value of the property with the given index.
+     *
+     * @param bean the bean
+     * @param index the index of the property
+     * @param value the value
+     */
+    public abstract void set(T bean, int index, Object value);
+
+    /**
+     * Sets the value of the property with the given index if
+     * the property is writable. Used by the decoder.
+     *
+     * @param bean the bean
+     * @param index the index of the property
+     * @param value the value
+     * @return true, if the property has been set
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public final boolean setValue(Object bean, int index, Object value) {
+        if (!hasFlag(index, WRITABLE)) {
+            return false;
+        }
+        set((T) bean, index, value);
+        return true;
+    }
+
+    /**
+     * Creates a new bean using the constructor without arguments.
+     * Overridden by codecs for beans with such a constructor.
+     *
+     * @return the bean
+     * @throws IllegalStateException if the bean has no constructor
+     * without arguments
+     */
+    public T newInstance() {
+        throw new IllegalStateException(
+            beanClass.getName() + " has no constructor without arguments.");
+    }
+
+    /**
+     * Creates a new bean using the constructor with the given index 
+     * (see {@link #BeanCodec(Class, String[], Class[], int[], boolean, 
+     * String[]...)}).
+     *
+     * @param constructor the index of the constructor
+     * @param args the arguments
+     * @return the bean
+     * @throws IndexOutOfBoundsException if there is no constructor
+     * with the given index
+     */
+    public T newInstance(int constructor, Object... args) {
+        throw new IndexOutOfBoundsException(beanClass.getName()
+            + " has no constructor with index " + constructor + ".");
+    }
+
+    /**
+     * Returns the bean class.
+     *
+     * @return the class
+     */
+    public Class<T> beanClass() {
+        return beanClass;
+    }
+
+    /* default */ int size() {
+        return names.length;
+    }
+
+    /* default */ String name(int index) {
+        return names[index];
+    }
+
+    /* default */ Class<?> type(int index) {
+        return types[index];
+    }
+
+    /* default */ boolean hasFlag(int index, int flag) {
+        return (flags[index] & flag) != 0;
+    }
+
+    /* default */ PropertyTable table() {
+        return table;
+    }
+
+    /* default */ int indexOf(String name) {
+        return Arrays.binarySearch(names, name);
+    }
+
+    /* default */ boolean hasDefaultConstructor() {
+        return defaultConstructor;
+    }
+
+    /**
+     * Returns the indices of the constructors with 
+     * {@link ConstructorProperties}, constructors with most
+     * properties first.
+     *
+     * @return the indices
+     */
+    @SuppressWarnings("PMD.MethodReturnsInternalArray")
+    /* default */ int[] constructorOrder() {
+        return constructorOrder;
+    }
+
+    /* default */ String[] constructorProperties(int constructor) {
+        return constructorProperties[constructor];
+    }
+
+    /**
+     * Returns the generated codec for the given class or `null`
+     * if the class isn't annotated with {@link GenerateCodec} or
+     * no codec has been generated.
+     *
+     * @param <T> the bean type
+     * @param cls the class
+     * @return the codec
+     */
+    @SuppressWarnings("unchecked")
+    /* default */ static <T> BeanCodec<T> forClass(Class<T> cls) {
+        return (BeanCodec<T>) codecs.get(cls).orElse(null);
+    }
+
+    @SuppressWarnings("PMD.EmptyCatchBlock")
+    private static Optional<BeanCodec<?>> findCodec(Class<?> cls) {
+        if (!cls.isAnnotationPresent(GenerateCodec.class)) {
+            return Optional.empty();
+        }
+        String pkg = cls.getPackageName();
+        String codecName = (pkg.isEmpty() ? "" : pkg + ".")
+            + cls.getName().substring(pkg.isEmpty() ? 0 : pkg.length() + 1)
+                .replace('$', '_')
+            + SUFFIX;
+        try {
+            Object codec = Class.forName(codecName, true,
+                cls.getClassLoader()).getConstructor().newInstance();
+            if (codec instanceof BeanCodec
+                && ((BeanCodec<?>) codec).beanClass() == cls) {
+                return Optional.of((BeanCodec<?>) codec);
+            }
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Not generated, use reflection.
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+import java.beans.BeanInfo;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The information required to set the properties of a JavaBean,
+ * derived once from the bean's {@link BeanInfo} and cached per class.
+ *
+ * The plan holds the names of the properties (sorted like the
+ * properties written by the encoder, see {@link PropertyTable}), 
+ * their types and their write methods bound as {@link MethodHandle}s.
+ * Properties without an (accessible) write method have no setter.
+ * They are set by assigning the field with the property's name, if
+ * such a field exists.
+ *
+ * The plans are kept in a {@link ClassValue}. As a {@link ClassValue}
+ * cannot be cleared as a whole, {@link #clearCache()} increments a
+ * generation counter instead. Plans from a previous generation are
+ * replaced when requested.
+ */
+final class BeanReadPlan implements PropertySetter {
+
+    private static final MethodType SETTER_TYPE
+        = MethodType.methodType(void.class, Object.class, Object.class);
+
+    @SuppressWarnings({ "PMD.FieldNamingConventions",
+        "PMD.VariableNamingConventions" })
+    private static final AtomicInteger generation = new AtomicInteger();
+    @SuppressWarnings({ "PMD.FieldNamingConventions",
+        "PMD.VariableNamingConventions" })
+    private static final ClassValue<Cached> plans = new ClassValue<>() {
+        @Override
+        protected Cached computeValue(Class<?> type) {
+            int current = generation.get();
+            return new Cached(current, createPlan(type));
+        }
+    };
+
+    /** Returned for classes that cannot be introspected. */
+    private static final BeanReadPlan NO_BEAN = new BeanReadPlan(
+        new String[0], new Class<?>[0], new MethodHandle[0]);
+
+    private final String[] names;
+    private final Class<?>[] types;
+    private final MethodHandle[] setters;
+    private final PropertyTable table;
+
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    private BeanReadPlan(String[] names, Class<?>[] types,
+            MethodHandle[] setters) {
+        this.names = names;
+        this.types = types;
+        this.setters = setters;
+        table = new PropertyTable(names, types);
+    }
+
+    /**
+     * Returns the plan for the given class or `null` if the class
+     * cannot be introspected.
+     *
+     * @param cls the class
+     * @return the plan
+     */
+    public static BeanReadPlan forClass(Class<?> cls) {
+        Cached cached = plans.get(cls);
+        if (cached.generation != generation.get()) {
+            plans.remove(cls);
+            cached = plans.get(cls);
+        }
+        return cached.plan == NO_BEAN ? null : cached.plan;
+    }
+
+    /**
+     * Clears the cache of plans.
+     */
+    public static void clearCache() {
+        generation.incrementAndGet();
+    }
+
+    @SuppressWarnings("PMD.EmptyCatchBlock")
+    private static BeanReadPlan createPlan(Class<?> cls) {
+        BeanInfo beanInfo = JsonCodec.findBeanInfo(cls);
+        if (beanInfo == null) {
+            return NO_BEAN;
+        }
+        PropertyDescriptor[] props = beanInfo.getPropertyDescriptors().clone();
+        Arrays.sort(props, Comparator.comparing(PropertyDescriptor::getName));
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        String[] names = new String[props.length];
+        Class<?>[] types = new Class<?>[props.length];
+        MethodHandle[] setters = new MethodHandle[props.length];
+        for (int i = 0; i < props.length; i++) {
+            names[i] = props[i].getName();
+            types[i] = props[i].getPropertyType();
+            Method method = props[i].getWriteMethod();
+            if (method == null) {
+                continue;
+            }
+            try {
+                setters[i] = lookup.unreflect(method).asType(SETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                // Bad luck, try field.
+            }
+        }
+        return new BeanReadPlan(names, types, setters);
+    }
+
+    /**
+     * Returns the {@link PropertyTable} for decoding the properties.
+     *
+     * @return the table
+     */
+    public PropertyTable table() {
+        return table;
+    }
+
+    /**
+     * Returns the name of the property with the given index.
+     *
+     * @param index the index
+     * @return the name
+     */
+    public String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * Returns the type of the property with the given index.
+     *
+     * @param index the index
+     * @return the type
+     */
+    public Class<?> type(int index) {
+        return types[index];
+    }
+
+    @Override
+    @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+    public boolean setValue(Object bean, int index, Object value)
+            throws Throwable {
+        MethodHandle setter = setters[index];
+        if (setter == null) {
+            return false;
+        }
+        setter.invokeExact(bean, value);
+        return true;
+    }
+
+    /**
+     * A plan with the generation of the cache when it was created.
+     */
+    private static final class Cached {
+        private final int generation;
+        private final BeanReadPlan plan;
+
+        private Cached(int generation, BeanReadPlan plan) {
+            this.generation = generation;
+            this.plan = plan;
+        }
+    }
+}
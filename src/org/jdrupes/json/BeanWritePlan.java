@@ -0,0 +1,486 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.beans.BeanInfo;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The information required to write a JavaBean, derived once from
+ * the bean's {@link BeanInfo} and cached per class.
+ *
+ * Transient properties, properties without an (accessible) read
+ * method and properties with a type that is excluded by default
+ * are dropped when the plan is created. The names of the remaining
+ * properties are pre-serialized and their read methods are bound
+ * as {@link MethodHandle}s. If a {@link BeanCodec} has been generated
+ * for the class, the properties are taken from and read by the codec.
+ * The properties of records are their components, in the order
+ * of declaration. Plans that use the fields instead of the 
+ * properties are provided by {@link #forFields(Class)}.
+ * 
+ * The information required to omit default values and empty
+ * containers is also provided per property, so that the encoder
+ * doesn't have to inspect the property's type when writing it.
+ *
+ * The plans are kept in {@link ClassValue}s. As a {@link ClassValue}
+ * cannot be cleared as a whole, {@link #clearCache()} increments a
+ * generation counter instead. Plans from a previous generation are
+ * replaced when requested.
+ */
+final class BeanWritePlan {
+
+    private static final MethodType GETTER_TYPE
+        = MethodType.methodType(Object.class, Object.class);
+
+    @SuppressWarnings({ "PMD.FieldNamingConventions",
+        "PMD.VariableNamingConventions" })
+    private static final AtomicInteger generation = new AtomicInteger();
+    @SuppressWarnings({ "PMD.FieldNamingConventions",
+        "PMD.VariableNamingConventions" })
+    private static final ClassValue<Cached> plans = new ClassValue<>() {
+        @Override
+        protected Cached computeValue(Class<?> type) {
+            int current = generation.get();
+            return new Cached(current, createPlan(type));
+        }
+    };
+
+    /** Returned for classes that cannot be handled as JavaBeans. */
+    private static final BeanWritePlan NO_BEAN
+        = new BeanWritePlan(Object.class, new Property[0]);
+
+    @SuppressWarnings({ "PMD.FieldNamingConventions",
+        "PMD.VariableNamingConventions" })
+    private static final ClassValue<BeanWritePlan> fieldPlans
+        = new ClassValue<>() {
+            @Override
+            protected BeanWritePlan computeValue(Class<?> type) {
+                RecordPlan record = RecordPlan.forClass(type);
+                if (record != null) {
+                    return createPlan(record);
+                }
+                FieldPlan fields = FieldPlan.forClass(type);
+                return fields == null ? NO_BEAN : createPlan(type, fields);
+            }
+        };
+
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private final Class<?> beanClass;
+    private final Property[] properties;
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private volatile Object[] defaults;
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    private volatile String fingerprint;
+
+    private BeanWritePlan(Class<?> beanClass, Property... properties) {
+        this.beanClass = beanClass;
+        this.properties = properties;
+    }
+
+    /**
+     * Returns the properties to be written, in the order provided
+     * by the {@link BeanInfo} (or the record).
+     *
+     * @return the properties
+     */
+    @SuppressWarnings("PMD.MethodReturnsInternalArray")
+    public Property[] properties() {
+        return properties;
+    }
+
+    /**
+     * Returns the default values of the properties, in the same order
+     * as {@link #properties()}. The default values are the values 
+     * of a bean created with the constructor without parameters, 
+     * using the same rule as the decoder (see 
+     * {@link ConstructorPlan#newInstance()}). If there is no such
+     * constructor, the defaults are the values of uninitialized 
+     * fields of the properties' types. 
+     * 
+     * The defaults are evaluated once, when first requested, by
+     * invoking every getter on the created bean.
+     *
+     * @return the defaults
+     */
+    @SuppressWarnings({ "PMD.MethodReturnsInternalArray",
+        "PMD.AvoidCatchingThrowable", "PMD.AvoidInstantiatingObjectsInLoops" })
+    public Object[] defaults() {
+        Object[] result = defaults;
+        if (result != null) {
+            return result;
+        }
+        result = new Object[properties.length];
+        Object bean = null;
+        try {
+            BeanCodec<?> codec = BeanCodec.forClass(beanClass);
+            if (codec == null) {
+                bean = ConstructorPlan.forClass(beanClass).newInstance();
+            } else if (codec.hasDefaultConstructor()) {
+                bean = codec.newInstance();
+            }
+        } catch (Throwable e) {
+            // Use defaults of types.
+        }
+        for (int i = 0; i < properties.length; i++) {
+            result[i] = JsonCodec.typeDefault(properties[i].type());
+            if (bean != null) {
+                try {
+                    result[i] = properties[i].get(bean);
+                } catch (Throwable e) {
+                    // Keep default of type.
+                }
+            }
+        }
+        defaults = result;
+        return result;
+    }
+
+    /**
+     * Returns the class that the plan has been created for.
+     *
+     * @return the class
+     */
+    public Class<?> beanClass() {
+        return beanClass;
+    }
+
+    /**
+     * Returns the names of the properties, in the same order
+     * as {@link #properties()}.
+     *
+     * @return the names
+     */
+    public String[] names() {
+        String[] names = new String[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            names[i] = properties[i].name().getValue();
+        }
+        return names;
+    }
+
+    /**
+     * Returns the types of the properties, in the same order
+     * as {@link #properties()}.
+     *
+     * @return the types
+     */
+    public Class<?>[] types() {
+        Class<?>[] types = new Class<?>[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            types[i] = properties[i].type();
+        }
+        return types;
+    }
+
+    /**
+     * Returns the fingerprint of the properties (see 
+     * {@link #fingerprint(String[], Class[])}), evaluated once, when
+     * first requested.
+     *
+     * @return the fingerprint
+     */
+    public String fingerprint() {
+        String result = fingerprint;
+        if (result == null) {
+            result = fingerprint(names(), types());
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the fingerprint of a sequence of properties.
+     * The fingerprint consists of the first 8 bytes of the SHA-256 
+     * digest of the UTF-8 encoded text "name:type,name:type,...", 
+     * using the names of the types as returned by 
+     * {@link Class#getName()}, as hexadecimal string with 16 digits.
+     * Including the types makes sure that a changed type of a 
+     * property is detected.
+     *
+     * @param names the names
+     * @param types the types
+     * @return the fingerprint
+     */
+    public static String fingerprint(String[] names, Class<?>[] types) {
+        if (names.length != types.length) {
+            throw new IllegalArgumentException(
+                "Number of names and types differ.");
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(names[i]).append(':').append(types[i].getName());
+        }
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(
+                text.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform must support SHA-256.
+            throw new IllegalStateException(e);
+        }
+        StringBuilder result = new StringBuilder(16);
+        for (int i = 0; i < 8; i++) {
+            result.append(String.format("%02x", digest[i]));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Returns the plan for the given class or `null` if the class
+     * isn't a JavaBean, i.e. has no properties.
+     *
+     * @param cls the class
+     * @return the plan
+     */
+    public static BeanWritePlan forClass(Class<?> cls) {
+        Cached cached = plans.get(cls);
+        if (cached.generation != generation.get()) {
+            plans.remove(cls);
+            cached = plans.get(cls);
+        }
+        return cached.plan == NO_BEAN ? null : cached.plan;
+    }
+
+    /**
+     * Returns the plan for writing the fields of the given class
+     * or `null` if the class has no accessible fields (see 
+     * {@link FieldPlan}). Records are handled like in 
+     * {@link #forClass(Class)}.
+     *
+     * @param cls the class
+     * @return the plan
+     */
+    public static BeanWritePlan forFields(Class<?> cls) {
+        BeanWritePlan plan = fieldPlans.get(cls);
+        return plan == NO_BEAN ? null : plan;
+    }
+
+    /**
+     * Clears the cache of plans.
+     */
+    public static void clearCache() {
+        generation.incrementAndGet();
+    }
+
+    @SuppressWarnings("PMD.EmptyCatchBlock")
+    private static BeanWritePlan createPlan(Class<?> cls) {
+        BeanCodec<?> codec = BeanCodec.forClass(cls);
+        if (codec != null) {
+            return createPlan(codec);
+        }
+        RecordPlan record = RecordPlan.forClass(cls);
+        if (record != null) {
+            return createPlan(record);
+        }
+        BeanInfo beanInfo = JsonCodec.findBeanInfo(cls);
+        if (beanInfo == null || beanInfo.getPropertyDescriptors().length == 0) {
+            return NO_BEAN;
+        }
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<Property> props = new ArrayList<>();
+        for (PropertyDescriptor propDesc : beanInfo.getPropertyDescriptors()) {
+            if (propDesc.getValue("transient") != null) {
+                continue;
+            }
+            Method method = propDesc.getReadMethod();
+            if (method == null || JsonBeanEncoder.EXCLUDED_DEFAULT
+                .contains(propDesc.getPropertyType().getName())) {
+                continue;
+            }
+            try {
+                props.add(new Property(propDesc.getName(),
+                    propDesc.getPropertyType(),
+                    lookup.unreflect(method).asType(GETTER_TYPE)));
+            } catch (IllegalAccessException e) {
+                // Bad luck, cannot be read.
+            }
+        }
+        return new BeanWritePlan(cls, props.toArray(new Property[0]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BeanWritePlan createPlan(BeanCodec<?> codec) {
+        List<Property> props = new ArrayList<>();
+        for (int i = 0; i < codec.size(); i++) {
+            if (codec.hasFlag(i, BeanCodec.TRANSIENT)
+                || !codec.hasFlag(i, BeanCodec.READABLE)
+                || JsonBeanEncoder.EXCLUDED_DEFAULT
+                    .contains(codec.type(i).getName())) {
+                continue;
+            }
+            props.add(new Property(codec.name(i), codec.type(i),
+                (BeanCodec<Object>) codec, i));
+        }
+        return new BeanWritePlan(codec.beanClass(),
+            props.toArray(new Property[0]));
+    }
+
+    private static BeanWritePlan createPlan(RecordPlan record) {
+        List<Property> props = new ArrayList<>();
+        for (int i = 0; i < record.size(); i++) {
+            if (JsonBeanEncoder.EXCLUDED_DEFAULT
+                .contains(record.type(i).getName())) {
+                continue;
+            }
+            props.add(new Property(record.name(i), record.type(i),
+                record.accessor(i)));
+        }
+        return new BeanWritePlan(record.recordClass(),
+            props.toArray(new Property[0]));
+    }
+
+    private static BeanWritePlan createPlan(Class<?> cls, FieldPlan fields) {
+        List<Property> props = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            if (JsonBeanEncoder.EXCLUDED_DEFAULT
+                .contains(fields.type(i).getName())) {
+                continue;
+            }
+            props.add(new Property(fields.name(i), fields.type(i),
+                fields.getter(i)));
+        }
+        return new BeanWritePlan(cls, props.toArray(new Property[0]));
+    }
+
+    /**
+     * A property of the bean.
+     */
+    public static final class Property {
+        private final SerializableString name;
+        private final Class<?> type;
+        private final String typeName;
+        private final MethodHandle getter;
+        private final BeanCodec<Object> codec;
+        private final int index;
+        private final boolean container;
+
+        private Property(String name, Class<?> type, MethodHandle getter) {
+            this(name, type, getter, null, 0);
+        }
+
+        private Property(String name, Class<?> type, BeanCodec<Object> codec,
+                int index) {
+            this(name, type, null, codec, index);
+        }
+
+        private Property(String name, Class<?> type, MethodHandle getter,
+                BeanCodec<Object> codec, int index) {
+            this.name = new SerializedString(name);
+            this.type = type;
+            this.typeName = type.getName();
+            this.getter = getter;
+            this.codec = codec;
+            this.index = index;
+            // Values may be containers if the type is a container type
+            // or a super type of a container type (e.g. Object).
+            container = type.isArray()
+                || Collection.class.isAssignableFrom(type)
+                || Map.class.isAssignableFrom(type)
+                || type.isAssignableFrom(Collection.class)
+                || type.isAssignableFrom(Map.class);
+        }
+
+        /**
+         * The (pre-serialized) name of the property.
+         *
+         * @return the name
+         */
+        public SerializableString name() {
+            return name;
+        }
+
+        /**
+         * The type of the property.
+         *
+         * @return the type
+         */
+        public Class<?> type() {
+            return type;
+        }
+
+        /**
+         * Checks if the property's type is in the given set of
+         * excluded type names.
+         *
+         * @param excluded the excluded type names
+         * @return true, if excluded
+         */
+        public boolean isExcluded(Set<String> excluded) {
+            return excluded.contains(typeName);
+        }
+
+        /**
+         * Checks if the given value of the property is an empty
+         * array, {@link Collection} or {@link Map}.
+         *
+         * @param value the value
+         * @return true, if empty
+         */
+        public boolean isEmpty(Object value) {
+            return container && JsonBeanEncoder.isEmptyContainer(value);
+        }
+
+        /**
+         * Gets the property's value from the given bean.
+         *
+         * @param bean the bean
+         * @return the value
+         * @throws Throwable any exception thrown by the read method
+         */
+        @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+        public Object get(Object bean) throws Throwable {
+            if (codec != null) {
+                return codec.get(bean, index);
+            }
+            return getter.invokeExact(bean);
+        }
+    }
+
+    /**
+     * A plan with the generation of the cache when it was created.
+     */
+    private static final class Cached {
+        private final int generation;
+        private final BeanWritePlan plan;
+
+        private Cached(int generation, BeanWritePlan plan) {
+            this.generation = generation;
+            this.plan = plan;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A growable byte array used as sink by the {@link JsonBeanEncoder}.
+ * Unlike {@link java.io.ByteArrayOutputStream}, the methods aren't
+ * synchronized and the content can be accessed without copying it.
+ */
+final class ByteArraySink extends OutputStream {
+
+    private static final int INITIAL_SIZE = 256;
+    private byte[] buffer = new byte[INITIAL_SIZE];
+    private int count;
+
+    private void ensureCapacity(int required) {
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer,
+                Math.max(required, buffer.length * 2));
+        }
+    }
+
+    @Override
+    public void write(int value) {
+        ensureCapacity(count + 1);
+        buffer[count++] = (byte) value;
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) {
+        ensureCapacity(count + length);
+        System.arraycopy(data, offset, buffer, count, length);
+        count += length;
+    }
+
+    /**
+     * Returns the number of bytes written.
+     *
+     * @return the size
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Discards the bytes written.
+     */
+    public void reset() {
+        count = 0;
+    }
+
+    /**
+     * Returns a copy of the bytes written.
+     *
+     * @return the bytes
+     */
+    public byte[] toBytes() {
+        return Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * Returns a buffer that wraps the bytes written without
+     * copying them. The buffer is only valid until more
+     * bytes are written or the sink is reset.
+     *
+     * @return the byte buffer
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buffer, 0, count).slice();
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A sink that writes into a chain of fixed size segments taken
+ * from a {@link JsonBeanEncoder.BufferPool}. Growing the sink never
+ * copies the data written so far.
+ *
+ * The data can be written to a channel in several steps (see
+ * {@link #writeTo(GatheringByteChannel)}). The chain keeps track
+ * of the data that has been written to the channel already.
+ */
+final class ByteBufferChain extends OutputStream {
+
+    private final JsonBeanEncoder.BufferPool pool;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private ByteBuffer current;
+    /** The segment with the first byte not yet written to a channel. */
+    private int sentSegment;
+    /** The offset of the first byte not yet written to a channel. */
+    private int sentOffset;
+    /** The buffers for the unsent data, `null` if not created yet. */
+    private ByteBuffer[] unsent;
+    /** The first of the buffers with unsent data. */
+    private int unsentFirst;
+
+    /**
+     * Instantiates a new chain.
+     *
+     * @param pool the pool to take the segments from
+     */
+    /* default */ ByteBufferChain(JsonBeanEncoder.BufferPool pool) {
+        this.pool = pool;
+    }
+
+    private void nextSegment() {
+        current = pool.acquire();
+        segments.add(current);
+    }
+
+    @Override
+    public void write(int value) {
+        unsent = null;
+        if (current == null || !current.hasRemaining()) {
+            nextSegment();
+        }
+        current.put((byte) value);
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) {
+        unsent = null;
+        int pos = offset;
+        int left = length;
+        while (left > 0) {
+            if (current == null || !current.hasRemaining()) {
+                nextSegment();
+            }
+            int count = Math.min(left, current.remaining());
+            current.put(data, pos, count);
+            pos += count;
+            left -= count;
+        }
+    }
+
+    /**
+     * Returns the data written as sequence of buffers that are
+     * ready to be read. The buffers share their content with
+     * the segments, i.e. they become invalid when the segments
+     * are released.
+     *
+     * @return the buffers
+     */
+    public ByteBuffer[] toByteBuffers() {
+        ByteBuffer[] result = new ByteBuffer[segments.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = segments.get(i).duplicate().flip();
+        }
+        return result;
+    }
+
+    /**
+     * Writes the data not yet written to the given channel. If the
+     * channel is in blocking mode, all data is written. Else, a single
+     * write is attempted and the method returns the number of bytes
+     * written by it, which may be zero. Use {@link #hasRemaining()}
+     * to check if there is more data to write. Data written to the 
+     * chain in the meantime is included in the next invocation.
+     *
+     * @param channel the channel
+     * @return the number of bytes written
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public long writeTo(GatheringByteChannel channel) throws IOException {
+        boolean blocking = !(channel instanceof SelectableChannel)
+            || ((SelectableChannel) channel).isBlocking();
+        ByteBuffer[] buffers = unsentBuffers();
+        long total = 0;
+        while (unsentFirst < buffers.length) {
+            total += channel.write(buffers, unsentFirst,
+                buffers.length - unsentFirst);
+            while (unsentFirst < buffers.length
+                && !buffers[unsentFirst].hasRemaining()) {
+                unsentFirst += 1;
+            }
+            if (!blocking) {
+                break;
+            }
+        }
+        if (buffers.length > 0) {
+            // Remember position, in case more data is added.
+            int index = Math.min(unsentFirst, buffers.length - 1);
+            sentSegment = segments.size() - buffers.length + index;
+            sentOffset = buffers[index].position();
+        }
+        return total;
+    }
+
+    /**
+     * Checks if there is data that has not been written to a channel
+     * yet.
+     *
+     * @return true, if there is data to write
+     */
+    public boolean hasRemaining() {
+        return unsentFirst < unsentBuffers().length;
+    }
+
+    private ByteBuffer[] unsentBuffers() {
+        if (unsent == null) {
+            unsent = new ByteBuffer[segments.size() - sentSegment];
+            for (int i = 0; i < unsent.length; i++) {
+                unsent[i] = segments.get(sentSegment + i).duplicate().flip();
+            }
+            if (unsent.length > 0) {
+                unsent[0].position(sentOffset);
+            }
+            unsentFirst = 0;
+            while (unsentFirst < unsent.length
+                && !unsent[unsentFirst].hasRemaining()) {
+                unsentFirst += 1;
+            }
+        }
+        return unsent;
+    }
+
+    /**
+     * Returns the segments to the pool.
+     */
+    public void release() {
+        for (ByteBuffer segment : segments) {
+            pool.release(segment);
+        }
+        segments.clear();
+        current = null;
+        sentSegment = 0;
+        sentOffset = 0;
+        unsent = null;
+    }
+}
@@ -0,0 +1,453 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.SequenceInputStream;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Compressing and decompressing streams that use pooled
+ * {@link Deflater}s and {@link Inflater}s. Unlike the streams from
+ * `java.util.zip`, which allocate (native) resources for every 
+ * stream, the resources are returned to a pool when the stream
+ * is closed or, for decompression, when the end of the compressed
+ * data has been reached. Decompression can be completed without
+ * closing the source of the compressed data with 
+ * {@link #finish(InputStream)}.
+ */
+final class CompressedStreams {
+
+    private static final int POOL_SIZE = 16;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+    private static final byte[] GZIP_HEADER = { (byte) GZIP_MAGIC,
+        (byte) (GZIP_MAGIC >> 8), Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 };
+
+    /** Pools for the zlib format (index 0) and raw data (index 1). */
+    @SuppressWarnings({ "PMD.FieldNamingConventions",
+        "PMD.VariableNamingConventions" })
+    private static final List<BlockingQueue<Deflater>> deflaters
+        = List.of(new ArrayBlockingQueue<>(POOL_SIZE),
+            new ArrayBlockingQueue<>(POOL_SIZE));
+    @SuppressWarnings({ "PMD.FieldNamingConventions",
+        "PMD.VariableNamingConventions" })
+    private static final List<BlockingQueue<Inflater>> inflaters
+        = List.of(new ArrayBlockingQueue<>(POOL_SIZE),
+            new ArrayBlockingQueue<>(POOL_SIZE));
+
+    private CompressedStreams() {
+    }
+
+    private static Deflater acquireDeflater(boolean nowrap) {
+        Deflater deflater = deflaters.get(nowrap ? 1 : 0).poll();
+        return deflater == null
+            ? new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap)
+            : deflater;
+    }
+
+    private static void releaseDeflater(Deflater deflater, boolean nowrap) {
+        deflater.reset();
+        if (!deflaters.get(nowrap ? 1 : 0).offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    private static Inflater acquireInflater(boolean nowrap) {
+        Inflater inflater = inflaters.get(nowrap ? 1 : 0).poll();
+        return inflater == null ? new Inflater(nowrap) : inflater;
+    }
+
+    private static void releaseInflater(Inflater inflater, boolean nowrap) {
+        inflater.reset();
+        if (!inflaters.get(nowrap ? 1 : 0).offer(inflater)) {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Returns a stream that compresses the data written to it
+     * and writes the result to the given stream. The stream must
+     * be closed to complete the compressed data. 
+     *
+     * @param out the stream to write the compressed data to
+     * @param compression the compression format
+     * @return the stream
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static OutputStream compressing(OutputStream out,
+            Compression compression) throws IOException {
+        boolean gzip = compression == Compression.GZIP;
+        return new CompressingStream(out, gzip, gzip, null);
+    }
+
+    /**
+     * Returns a stream that compresses the data written to it
+     * using the given dictionary. The id of the dictionary is written
+     * to the given stream (as variable length unsigned integer), 
+     * followed by the raw deflated data and a trailer with the 
+     * CRC-32 and the size of the uncompressed data (as in the 
+     * gzip format). The stream must be closed to complete the 
+     * compressed data.
+     *
+     * @param out the stream to write the compressed data to
+     * @param dictionary the dictionary
+     * @return the stream
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static OutputStream compressing(OutputStream out,
+            CompressionDictionary dictionary) throws IOException {
+        int id = dictionary.id();
+        while ((id & ~0x7f) != 0) {
+            out.write(id & 0x7f | 0x80);
+            id >>>= 7;
+        }
+        out.write(id);
+        return new CompressingStream(out, false, true, dictionary);
+    }
+
+    /**
+     * Returns a stream that provides the decompressed data 
+     * from the given stream.
+     *
+     * @param in the stream with the compressed data
+     * @param compression the compression format
+     * @return the stream
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static InputStream decompressing(InputStream in,
+            Compression compression) throws IOException {
+        if (compression == Compression.GZIP) {
+            readGzipHeader(in);
+            return new DecompressingStream(in, true, true, null);
+        }
+        return new DecompressingStream(in, false, false, null);
+    }
+
+    /**
+     * Returns a stream that provides the decompressed data from
+     * the given stream, which must have been created with
+     * {@link #compressing(OutputStream, CompressionDictionary)}.
+     *
+     * @param in the stream with the compressed data
+     * @param dictionaries the dictionaries, one of which must have
+     * the id found in the stream
+     * @return the stream
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static InputStream decompressing(InputStream in,
+            CompressionDictionary... dictionaries) throws IOException {
+        int id = 0;
+        for (int shift = 0;; shift += 7) {
+            if (shift > 28) {
+                throw new ZipException("Invalid dictionary id");
+            }
+            int value = readByte(in);
+            id |= (value & 0x7f) << shift;
+            if ((value & 0x80) == 0) {
+                break;
+            }
+        }
+        for (CompressionDictionary dictionary : dictionaries) {
+            if (dictionary.id() == id) {
+                return new DecompressingStream(in, false, true, dictionary);
+            }
+        }
+        throw new ZipException("Unknown dictionary id " + id);
+    }
+
+    /**
+     * Returns a stream that provides the decompressed data if the 
+     * given stream starts with the gzip magic bytes. Else, a stream
+     * that provides the data unmodified is returned.
+     *
+     * @param in the stream
+     * @return the stream
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static InputStream detectGzip(InputStream in) throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(in, 2);
+        int first = pushback.read();
+        if (first < 0) {
+            return pushback;
+        }
+        int second = pushback.read();
+        if (second >= 0) {
+            pushback.unread(second);
+        }
+        pushback.unread(first);
+        if (first == (GZIP_MAGIC & 0xff) && second == GZIP_MAGIC >> 8) {
+            return decompressing(pushback, Compression.GZIP);
+        }
+        return pushback;
+    }
+
+    /**
+     * Completes the decompression if the given stream has been
+     * created by this class and the end of the compressed data has
+     * not been reached yet. The remaining compressed data is read
+     * and the trailer, if any, is verified. The (native) 
+     * resources are released, even if this fails. The source
+     * of the compressed data is not closed. Streams not created by 
+     * this class are ignored. 
+     *
+     * @param in the stream
+     * @throws IOException if reading the remaining data fails or
+     * the data is corrupt
+     */
+    public static void finish(InputStream in) throws IOException {
+        if (in instanceof DecompressingStream) {
+            ((DecompressingStream) in).finish();
+        }
+    }
+
+    /**
+     * Checks if the given data starts with the gzip magic bytes.
+     *
+     * @param data the data
+     * @return true, if is gzip
+     */
+    public static boolean isGzip(byte[] data) {
+        return data.length >= 2 && data[0] == (byte) GZIP_MAGIC
+            && data[1] == (byte) (GZIP_MAGIC >> 8);
+    }
+
+    private static int readByte(InputStream in) throws IOException {
+        int value = in.read();
+        if (value < 0) {
+            throw new EOFException();
+        }
+        return value;
+    }
+
+    private static int readUShort(InputStream in) throws IOException {
+        return readByte(in) | readByte(in) << 8;
+    }
+
+    private static long readUInt(InputStream in) throws IOException {
+        return readUShort(in) | (long) readUShort(in) << 16;
+    }
+
+    private static void skipBytes(InputStream in, int count)
+            throws IOException {
+        for (int i = 0; i < count; i++) {
+            readByte(in);
+        }
+    }
+
+    private static void readGzipHeader(InputStream in) throws IOException {
+        if (readUShort(in) != GZIP_MAGIC) {
+            throw new ZipException("Not in GZIP format");
+        }
+        if (readByte(in) != Deflater.DEFLATED) {
+            throw new ZipException("Unsupported compression method");
+        }
+        int flags = readByte(in);
+        // Modification time, extra flags and OS
+        skipBytes(in, 6);
+        if ((flags & FEXTRA) != 0) {
+            skipBytes(in, readUShort(in));
+        }
+        if ((flags & FNAME) != 0) {
+            while (readByte(in) != 0) {
+                // Skip
+            }
+        }
+        if ((flags & FCOMMENT) != 0) {
+            while (readByte(in) != 0) {
+                // Skip
+            }
+        }
+        if ((flags & FHCRC) != 0) {
+            skipBytes(in, 2);
+        }
+    }
+
+    /**
+     * Compresses the data using a pooled {@link Deflater}.
+     */
+    private static class CompressingStream extends DeflaterOutputStream {
+
+        private final boolean checked;
+        private final boolean nowrap;
+        private final CRC32 crc;
+        private boolean released;
+
+        /* default */ CompressingStream(OutputStream out, boolean gzip,
+                boolean nowrap, CompressionDictionary dictionary)
+                throws IOException {
+            super(out, acquireDeflater(nowrap), BUFFER_SIZE);
+            checked = gzip || dictionary != null;
+            this.nowrap = nowrap;
+            if (dictionary != null) {
+                dictionary.applyTo(def);
+            }
+            if (gzip) {
+                out.write(GZIP_HEADER);
+            }
+            crc = checked ? new CRC32() : null;
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length)
+                throws IOException {
+            super.write(data, offset, length);
+            if (checked) {
+                crc.update(data, offset, length);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (def.finished()) {
+                return;
+            }
+            super.finish();
+            if (checked) {
+                writeInt((int) crc.getValue());
+                writeInt((int) def.getBytesRead());
+            }
+        }
+
+        private void writeInt(int value) throws IOException {
+            out.write(value);
+            out.write(value >> 8);
+            out.write(value >> 16);
+            out.write(value >> 24);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (released) {
+                return;
+            }
+            try {
+                super.close();
+            } finally {
+                released = true;
+                releaseDeflater(def, nowrap);
+            }
+        }
+    }
+
+    /**
+     * Decompresses the data using a pooled {@link Inflater}.
+     */
+    private static class DecompressingStream extends InflaterInputStream {
+
+        private final boolean checked;
+        private final boolean nowrap;
+        private final CRC32 crc;
+        private boolean released;
+
+        /* default */ DecompressingStream(InputStream in, boolean gzip,
+                boolean nowrap, CompressionDictionary dictionary) {
+            super(in, acquireInflater(nowrap), BUFFER_SIZE);
+            checked = gzip || dictionary != null;
+            this.nowrap = nowrap;
+            if (dictionary != null) {
+                dictionary.applyTo(inf);
+            }
+            crc = checked ? new CRC32() : null;
+        }
+
+        @Override
+        public int read(byte[] data, int offset, int length)
+                throws IOException {
+            if (released) {
+                return -1;
+            }
+            int count = super.read(data, offset, length);
+            if (count < 0) {
+                if (inf.needsDictionary()) {
+                    throw new ZipException("Preset dictionary required");
+                }
+                if (checked) {
+                    readTrailer();
+                }
+                release();
+                return -1;
+            }
+            if (checked) {
+                crc.update(data, offset, count);
+            }
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return released ? 0 : super.available();
+        }
+
+        private void readTrailer() throws IOException {
+            InputStream trailer = in;
+            int remaining = inf.getRemaining();
+            if (remaining > 0) {
+                trailer = new SequenceInputStream(
+                    new ByteArrayInputStream(buf, len - remaining, remaining),
+                    in);
+            }
+            if (readUInt(trailer) != crc.getValue()
+                || readUInt(trailer) != (inf.getBytesWritten() & 0xffff_ffffL)) {
+                throw new ZipException("Corrupt trailer");
+            }
+        }
+
+        /* default */ void finish() throws IOException {
+            try {
+                byte[] skipped = new byte[BUFFER_SIZE];
+                while (read(skipped, 0, skipped.length) >= 0) {
+                    // Drain
+                }
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            if (!released) {
+                released = true;
+                releaseInflater(inf, nowrap);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            release();
+            super.close();
+        }
+    }
+}
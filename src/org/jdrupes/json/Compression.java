@@ -0,0 +1,36 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The compression formats supported by 
+ * {@link JsonBeanEncoder#createCompressed(OutputStream, Compression)}
+ * and {@link JsonBeanDecoder#createCompressed(InputStream, Compression)}.
+ */
+public enum Compression {
+
+    /** The gzip file format (RFC 1952). */
+    GZIP,
+
+    /** The zlib format (RFC 1950), i.e. deflated data with a header. */
+    DEFLATE
+}
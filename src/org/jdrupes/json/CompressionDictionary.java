@@ -0,0 +1,230 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A preset dictionary for compressing small messages (see
+ * {@link JsonBeanEncoder#createCompressed(java.io.OutputStream, 
+ * CompressionDictionary)}). Deflating a message of a few hundred
+ * bytes yields hardly any gain, because there is no history
+ * for the back-references that make up most of the savings.
+ * A dictionary with content that is likely to occur in the 
+ * messages, e.g. property names and recurring values, provides
+ * this history.
+ * 
+ * The encoder and decoder must use the same dictionary. A dictionary
+ * therefore has an id that is written as prefix of the compressed
+ * data. When changing the content of a dictionary, a new id should
+ * be used. The decoder can then be given both the old and the new
+ * dictionary during the transition.
+ * 
+ * ```java
+ * CompressionDictionary dictionary 
+ *     = CompressionDictionary.train(1, sampleMessages);
+ * ```
+ */
+public final class CompressionDictionary {
+
+    /** The maximum useful size of a dictionary (the deflate window). */
+    public static final int MAX_SIZE = 32 * 1024;
+    private static final int GRAM_SIZE = 6;
+    /** Fragments must occur in this share of samples (in percent). */
+    private static final int MIN_SHARE = 5;
+
+    private final int id;
+    private final byte[] content;
+
+    /**
+     * Creates a new dictionary with the given id and content. If 
+     * the content is larger than {@link #MAX_SIZE}, only the last 
+     * {@link #MAX_SIZE} bytes are used.
+     *
+     * @param id the id, must not be negative
+     * @param content the content
+     */
+    public CompressionDictionary(int id, byte[] content) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Id must not be negative.");
+        }
+        this.id = id;
+        this.content = Arrays.copyOfRange(content,
+            Math.max(0, content.length - MAX_SIZE), content.length);
+    }
+
+    /**
+     * Returns the id.
+     *
+     * @return the id
+     */
+    @SuppressWarnings("PMD.ShortMethodName")
+    public int id() {
+        return id;
+    }
+
+    /**
+     * Returns (a copy of) the content.
+     *
+     * @return the content
+     */
+    public byte[] content() {
+        return content.clone();
+    }
+
+    /* default */ void applyTo(Deflater deflater) {
+        deflater.setDictionary(content);
+    }
+
+    /* default */ void applyTo(Inflater inflater) {
+        inflater.setDictionary(content);
+    }
+
+    /**
+     * Invokes {@link #train(int, Collection, int)} with 
+     * {@link #MAX_SIZE} as maximum size.
+     *
+     * @param id the id
+     * @param samples the samples
+     * @return the dictionary
+     */
+    public static CompressionDictionary train(int id,
+            Collection<byte[]> samples) {
+        return train(id, samples, MAX_SIZE);
+    }
+
+    /**
+     * Creates a dictionary from sample messages, usually obtained 
+     * from a {@link JsonBeanEncoder} (see 
+     * {@link JsonBeanEncoder#createForBytes()}).
+     * 
+     * The dictionary is made up of the fragments that occur in 
+     * several samples (at least two and at least 5% of the samples).
+     * Fragments are selected by the number of bytes 
+     * that they would have saved in the samples. The most valuable
+     * fragments are put at the end of the dictionary, where they
+     * can be referenced with the shortest distances.
+     *
+     * @param id the id
+     * @param samples the samples
+     * @param maxSize the maximum size of the dictionary
+     * @return the dictionary
+     */
+    @SuppressWarnings({ "PMD.AvoidInstantiatingObjectsInLoops",
+        "PMD.CognitiveComplexity" })
+    public static CompressionDictionary train(int id,
+            Collection<byte[]> samples, int maxSize) {
+        // Find the n-grams that occur in a reasonable number of samples.
+        Map<Long, Integer> gramCounts = new HashMap<>();
+        for (byte[] sample : samples) {
+            Set<Long> seen = new HashSet<>();
+            for (int i = 0; i + GRAM_SIZE <= sample.length; i++) {
+                if (seen.add(gram(sample, i))) {
+                    gramCounts.merge(gram(sample, i), 1, Integer::sum);
+                }
+            }
+        }
+        int minCount = Math.max(Math.min(2, samples.size()),
+            samples.size() * MIN_SHARE / 100);
+
+        // Collect the fragments covered by frequent n-grams. A fragment
+        // ends where the frequency of the n-grams changes significantly,
+        // i.e. where the common part ends and a variable part begins.
+        Map<String, Integer> fragments = new HashMap<>();
+        for (byte[] sample : samples) {
+            Set<String> seen = new HashSet<>();
+            int start = -1;
+            int end = -1;
+            int lastCount = 0;
+            for (int i = 0; i + GRAM_SIZE <= sample.length; i++) {
+                int count = gramCounts.get(gram(sample, i));
+                if (count < minCount) {
+                    continue;
+                }
+                if (i > end || count > lastCount * 2 || count * 2 < lastCount) {
+                    addFragment(fragments, seen, sample, start, end);
+                    start = i;
+                }
+                end = i + GRAM_SIZE;
+                lastCount = count;
+            }
+            addFragment(fragments, seen, sample, start, end);
+        }
+
+        // Select by bytes saved, most valuable at the end.
+        List<String> selected = new ArrayList<>();
+        int size = 0;
+        List<Map.Entry<String, Integer>> candidates
+            = new ArrayList<>(fragments.entrySet());
+        candidates.sort(Comparator.comparingLong(
+            (Map.Entry<String, Integer> e) -> (long) e.getValue()
+                * e.getKey().length())
+            .reversed().thenComparing(Map.Entry::getKey));
+        for (Map.Entry<String, Integer> candidate : candidates) {
+            String text = candidate.getKey();
+            if (candidate.getValue() < minCount
+                || size + text.length() > maxSize) {
+                continue;
+            }
+            if (selected.stream().anyMatch(s -> s.contains(text))) {
+                continue;
+            }
+            selected.add(text);
+            size += text.length();
+        }
+        StringBuilder content = new StringBuilder(size);
+        for (int i = selected.size() - 1; i >= 0; i--) {
+            content.append(selected.get(i));
+        }
+        return new CompressionDictionary(id,
+            content.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static long gram(byte[] data, int offset) {
+        long result = 0;
+        for (int i = 0; i < GRAM_SIZE; i++) {
+            result = result << 8 | data[offset + i] & 0xff;
+        }
+        return result;
+    }
+
+    private static void addFragment(Map<String, Integer> fragments,
+            Set<String> seen, byte[] sample, int start, int end) {
+        if (start < 0) {
+            return;
+        }
+        // ISO 8859-1 maps bytes to chars one to one
+        String fragment = new String(sample, start, end - start,
+            StandardCharsets.ISO_8859_1);
+        if (seen.add(fragment)) {
+            fragments.merge(fragment, 1, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+import java.beans.ConstructorProperties;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The constructors used to create an object when decoding it, 
+ * derived once from the object's class and cached per class.
+ *
+ * The candidates are the public constructors annotated with
+ * {@link ConstructorProperties}, ordered by decreasing number of
+ * parameters. They are bound as {@link MethodHandle}s that accept
+ * the arguments as array. The default values of the parameters'
+ * types are provided for each candidate, because they are needed
+ * if a value has been omitted by the encoder.
+ */
+final class ConstructorPlan {
+
+    private static final MethodType CONSTRUCTOR_TYPE
+        = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType DEFAULT_CONSTRUCTOR_TYPE
+        = MethodType.methodType(Object.class);
+
+    @SuppressWarnings({ "PMD.FieldNamingConventions",
+        "PMD.VariableNamingConventions" })
+    private static final ClassValue<ConstructorPlan> plans
+        = new ClassValue<>() {
+            @Override
+            protected ConstructorPlan computeValue(Class<?> type) {
+                return createPlan(type);
+            }
+        };
+
+    private final Class<?> beanClass;
+    private final String[][] parameters;
+    private final Object[][] defaults;
+    private final MethodHandle[] constructors;
+    private final MethodHandle defaultConstructor;
+    private final boolean hasDefaultConstructor;
+
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    private ConstructorPlan(Class<?> beanClass, String[][] parameters,
+            Object[][] defaults, MethodHandle[] constructors,
+            MethodHandle defaultConstructor, boolean hasDefaultConstructor) {
+        this.beanClass = beanClass;
+        this.parameters = parameters;
+        this.defaults = defaults;
+        this.constructors = constructors;
+        this.defaultConstructor = defaultConstructor;
+        this.hasDefaultConstructor = hasDefaultConstructor;
+    }
+
+    /**
+     * Returns the plan for the given class.
+     *
+     * @param cls the class
+     * @return the plan
+     */
+    public static ConstructorPlan forClass(Class<?> cls) {
+        return plans.get(cls);
+    }
+
+    @SuppressWarnings({ "PMD.EmptyCatchBlock",
+        "PMD.AvoidInstantiatingObjectsInLoops" })
+    private static ConstructorPlan createPlan(Class<?> cls) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<Constructor<?>> candidates = new ArrayList<>();
+        for (Constructor<?> c : cls.getConstructors()) {
+            if (c.isAnnotationPresent(ConstructorProperties.class)) {
+                candidates.add(c);
+            }
+        }
+        candidates.sort(Comparator.comparingInt(
+            (Constructor<?> c) -> c.getAnnotation(ConstructorProperties.class)
+                .value().length)
+            .reversed());
+        List<String[]> parameters = new ArrayList<>();
+        List<Object[]> defaults = new ArrayList<>();
+        List<MethodHandle> constructors = new ArrayList<>();
+        for (Constructor<?> c : candidates) {
+            String[] names
+                = c.getAnnotation(ConstructorProperties.class).value();
+            Class<?>[] types = c.getParameterTypes();
+            if (names.length != types.length) {
+                // Invalid annotation, cannot be used.
+                continue;
+            }
+            try {
+                constructors.add(lookup.unreflectConstructor(c)
+                    .asSpreader(Object[].class, types.length)
+                    .asType(CONSTRUCTOR_TYPE));
+            } catch (IllegalAccessException e) {
+                continue;
+            }
+            Object[] values = new Object[types.length];
+            for (int i = 0; i < types.length; i++) {
+                values[i] = JsonCodec.typeDefault(types[i]);
+            }
+            parameters.add(names);
+            defaults.add(values);
+        }
+        boolean hasDefaultConstructor = false;
+        MethodHandle defaultConstructor = null;
+        try {
+            Constructor<?> noArgs = cls.getDeclaredConstructor();
+            hasDefaultConstructor = true;
+            defaultConstructor = lookup.unreflectConstructor(noArgs)
+                .asType(DEFAULT_CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException
+                | SecurityException e) {
+            // Not available.
+        }
+        return new ConstructorPlan(cls, parameters.toArray(new String[0][]),
+            defaults.toArray(new Object[0][]),
+            constructors.toArray(new MethodHandle[0]), defaultConstructor,
+            hasDefaultConstructor);
+    }
+
+    /**
+     * Returns the number of constructors annotated with
+     * {@link ConstructorProperties}.
+     *
+     * @return the number
+     */
+    public int size() {
+        return constructors.length;
+    }
+
+    /**
+     * Returns the names of the properties passed as parameters to
+     * the constructor with the given index.
+     *
+     * @param index the index
+     * @return the names
+     */
+    @SuppressWarnings("PMD.MethodReturnsInternalArray")
+    public String[] parameters(int index) {
+        return parameters[index];
+    }
+
+    /**
+     * Returns a copy of the default values of the types of the 
+     * parameters of the constructor with the given index.
+     *
+     * @param index the index
+     * @return the values
+     */
+    public Object[] defaultArguments(int index) {
+        return defaults[index].clone();
+    }
+
+    /**
+     * Checks if the class declares a constructor without parameters.
+     *
+     * @return the result
+     */
+    public boolean hasDefaultConstructor() {
+        return hasDefaultConstructor;
+    }
+
+    /**
+     * Creates a new instance with the constructor with the given index.
+     *
+     * @param index the index
+     * @param args the arguments
+     * @return the object
+     * @throws Throwable any exception thrown by the constructor
+     */
+    @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+    public Object newInstance(int index, Object... args) throws Throwable {
+        return constructors[index].invokeExact(args);
+    }
+
+    /**
+     * Creates a new instance with the constructor without parameters.
+     *
+     * @return the object
+     * @throws Throwable any exception thrown by the constructor or
+     * an {@link IllegalAccessException} if there is no accessible
+     * constructor without parameters
+     */
+    @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+    public Object newInstance() throws Throwable {
+        if (defaultConstructor == null) {
+            throw new IllegalAccessException(
+                "No accessible constructor without parameters in "
+                    + beanClass.getName());
+        }
+        return defaultConstructor.invokeExact();
+    }
+}
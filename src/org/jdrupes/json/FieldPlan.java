@@ -0,0 +1,217 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * The information required to access the fields of an object
+ * directly, derived once from the object's class and cached per
+ * class.
+ *
+ * The fields are all non-static, non-transient fields declared
+ * by the class and its super classes (except {@link Object}).
+ * A field hides fields with the same name declared by super
+ * classes. The fields are ordered by name, i.e. the fields of
+ * a JavaBean that follows the usual conventions are written in
+ * the same order as its properties.
+ *
+ * The fields are accessed using {@link VarHandle}s obtained with
+ * a private lookup in the declaring class. Fields that cannot be
+ * accessed that way (e.g. because the declaring class is in a module
+ * that isn't open) are ignored. Final fields cannot be set using 
+ * a {@link VarHandle}. For these, the {@link Field} is kept, made
+ * accessible when the plan is created.
+ */
+final class FieldPlan implements PropertySetter {
+
+    private static final MethodType GETTER_TYPE
+        = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE
+        = MethodType.methodType(void.class, Object.class, Object.class);
+
+    @SuppressWarnings({ "PMD.FieldNamingConventions",
+        "PMD.VariableNamingConventions" })
+    private static final ClassValue<Optional<FieldPlan>> plans
+        = new ClassValue<>() {
+            @Override
+            protected Optional<FieldPlan> computeValue(Class<?> type) {
+                return Optional.ofNullable(createPlan(type));
+            }
+        };
+
+    private final String[] names;
+    private final Class<?>[] types;
+    private final MethodHandle[] getters;
+    private final MethodHandle[] setters;
+    private final Field[] finals;
+    private final PropertyTable table;
+
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    private FieldPlan(String[] names, Class<?>[] types,
+            MethodHandle[] getters, MethodHandle[] setters, Field... finals) {
+        this.names = names;
+        this.types = types;
+        this.getters = getters;
+        this.setters = setters;
+        this.finals = finals;
+        table = new PropertyTable(names, types);
+    }
+
+    /**
+     * Returns the plan for the given class or `null` if the class
+     * has no accessible fields or is a record (which is handled
+     * by the {@link RecordPlan}).
+     *
+     * @param cls the class
+     * @return the plan
+     */
+    public static FieldPlan forClass(Class<?> cls) {
+        return plans.get(cls).orElse(null);
+    }
+
+    @SuppressWarnings({ "PMD.CognitiveComplexity",
+        "PMD.AvoidInstantiatingObjectsInLoops", "PMD.EmptyCatchBlock",
+        "PMD.AvoidAccessibilityAlteration" })
+    private static FieldPlan createPlan(Class<?> cls) {
+        if (cls.isInterface() || cls.isArray() || cls.isPrimitive()
+            || RecordPlan.forClass(cls) != null) {
+            return null;
+        }
+        TreeMap<String, Field> fields = new TreeMap<>();
+        for (Class<?> cur = cls; cur != null && cur != Object.class;
+                cur = cur.getSuperclass()) {
+            for (Field field : cur.getDeclaredFields()) {
+                int mods = field.getModifiers();
+                if (Modifier.isStatic(mods) || Modifier.isTransient(mods)
+                    || field.isSynthetic()) {
+                    continue;
+                }
+                fields.putIfAbsent(field.getName(), field);
+            }
+        }
+        int count = 0;
+        String[] names = new String[fields.size()];
+        Class<?>[] types = new Class<?>[fields.size()];
+        MethodHandle[] getters = new MethodHandle[fields.size()];
+        MethodHandle[] setters = new MethodHandle[fields.size()];
+        Field[] finals = new Field[fields.size()];
+        for (Field field : fields.values()) {
+            try {
+                VarHandle handle = MethodHandles.privateLookupIn(
+                    field.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflectVarHandle(field);
+                names[count] = field.getName();
+                types[count] = field.getType();
+                getters[count] = handle
+                    .toMethodHandle(VarHandle.AccessMode.GET)
+                    .asType(GETTER_TYPE);
+                if (handle.isAccessModeSupported(VarHandle.AccessMode.SET)) {
+                    setters[count] = handle
+                        .toMethodHandle(VarHandle.AccessMode.SET)
+                        .asType(SETTER_TYPE);
+                } else {
+                    field.setAccessible(true);
+                    finals[count] = field;
+                }
+                count += 1;
+            } catch (IllegalAccessException | SecurityException e) {
+                // Not accessible, ignore.
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        return new FieldPlan(Arrays.copyOf(names, count),
+            Arrays.copyOf(types, count), Arrays.copyOf(getters, count),
+            Arrays.copyOf(setters, count), Arrays.copyOf(finals, count));
+    }
+
+    /**
+     * Returns the number of fields.
+     *
+     * @return the size
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns the name of the field with the given index.
+     *
+     * @param index the index
+     * @return the name
+     */
+    public String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * Returns the type of the field with the given index.
+     *
+     * @param index the index
+     * @return the type
+     */
+    public Class<?> type(int index) {
+        return types[index];
+    }
+
+    /**
+     * Returns the {@link PropertyTable} for decoding the fields.
+     *
+     * @return the table
+     */
+    public PropertyTable table() {
+        return table;
+    }
+
+    /**
+     * Returns a method handle of type `(Object)Object` that gets
+     * the value of the field with the given index.
+     *
+     * @param index the index
+     * @return the method handle
+     */
+    public MethodHandle getter(int index) {
+        return getters[index];
+    }
+
+    @Override
+    @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+    public boolean setValue(Object bean, int index, Object value)
+            throws Throwable {
+        if (setters[index] != null) {
+            setters[index].invokeExact(bean, value);
+            return true;
+        }
+        if (finals[index] != null) {
+            finals[index].set(bean, value);
+            return true;
+        }
+        return false;
+    }
+}
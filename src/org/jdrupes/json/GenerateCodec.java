@@ -0,0 +1,43 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a JavaBean for which the annotation processor from
+ * the artifact `org.jdrupes.json:json-processor` generates a 
+ * {@link BeanCodec} at build time. The artifact must be put on 
+ * the processor path (e.g. as `annotationProcessor` dependency 
+ * with gradle), it is not required at runtime. The 
+ * {@link JsonBeanEncoder} and {@link JsonBeanDecoder} use the 
+ * generated codec instead of introspection and reflective method 
+ * invocations. If the codec cannot be found (e.g. because
+ * the annotation processor hasn't been run), the bean is handled
+ * using reflection as usual.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface GenerateCodec {
+}
@@ -18,21 +18,22 @@
 
 package org.jdrupes.json;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
-import java.beans.BeanInfo;
 import java.beans.ConstructorProperties;
-import java.beans.PropertyDescriptor;
 import java.beans.PropertyEditor;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.lang.reflect.Array;
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.sql.Date;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
@@ -40,7 +41,7 @@ import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -48,9 +49,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.function.Function;
+import java.util.stream.Stream;
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 import javax.management.openmbean.ArrayType;
@@ -81,8 +81,19 @@ import org.jdrupes.json.JsonObject.DefaultJsonObject;
  *  * If the expected type is an array type, an array of the expected 
  *    type with the given element type is created. The JSON input must
  *    be an array.
+ *  * If the expected type is {@link Iterable} or {@link Stream},
+ *    the JSON array is read into a {@link DefaultJsonArray} and
+ *    the array or a stream of its elements is returned.
  *  * In all cases above, the element type is passed 
  *    as expected type when decoding the members of the JSON array.
+ *  * Values of type {@link java.util.Date}, {@link Instant} and
+ *    {@link java.time.OffsetDateTime} can be read from ISO 8601 strings
+ *    or from numbers (milliseconds since the epoch). Values of type
+ *    {@link java.time.LocalDate} and {@link java.time.LocalDateTime}
+ *    are read from ISO 8601 strings.
+ *  * If the expected type is `byte[]` or {@link ByteBuffer}, the
+ *    JSON input may be an array of numbers or binary data, i.e.
+ *    a Base64 encoded string (see {@link JsonBeanEncoder#useBinary()}).
  *  * If the expected type is an {@link Object} and the JSON input
  *    is a JSON object, the input is converted to a 
  *    {@link DefaultJsonObject}, which is a {@link HashMap
@@ -92,7 +103,9 @@ import org.jdrupes.json.JsonObject.DefaultJsonObject;
  *    The key/value pairs of the JSON input are interpreted as properties
  *    of the JavaBean and set if the values have been parsed successfully.
  *    The type of the properties are passed as expected types when
- *    parsing the values.
+ *    parsing the values. If the JavaBean has no constructor with 
+ *    {@link ConstructorProperties}, it is created before the values
+ *    are parsed and each value is set as soon as it is available.
  *    
  *    Constructors with {@link ConstructorProperties}
  *    are used if all required values are available. Else, if no setter is
@@ -103,7 +116,24 @@ import org.jdrupes.json.JsonObject.DefaultJsonObject;
  *    access to private fields. So defining a constructor with
  *    a {@link ConstructorProperties} annotation and all immutable
  *    properties as parameters is strongly recommended.
+ *    
+ *    If no constructor with {@link ConstructorProperties} matches
+ *    the values provided and the JavaBean has no default constructor,
+ *    the constructor with the most parameters is used. Missing values
+ *    are replaced with zero or `false` for primitive types and 
+ *    `null` for other types. This restores the values omitted by
+ *    {@link JsonBeanEncoder#omitNulls()} and 
+ *    {@link JsonBeanEncoder#omitDefaults()}.
+ *    
+ *    Records (if supported by the runtime) are created using their
+ *    canonical constructor. The key/value pairs are interpreted as 
+ *    components, missing components are handled like missing 
+ *    constructor parameters.
  *      
+ *  JavaBeans written as arrays of property values (see
+ *  {@link JsonBeanEncoder#usePositional()}) are decoded if the
+ *  expected type is the JavaBean's class. 
+ *    
  *  A JSON object can have a "class" key. It must be the first key
  *  of the object. Its value is used to instantiate the Java object
  *  in which the information of the JSON object is stored. If
@@ -119,13 +149,23 @@ import org.jdrupes.json.JsonObject.DefaultJsonObject;
  *  to {@link Class#forName(String)}. If the converter does not
  *  return a result, a {@link JsonObject} is used as container for 
  *  the values provided by the JSON object.
+ *  
+ *  JavaBeans annotated with {@link GenerateCodec} are created and
+ *  filled using the generated {@link BeanCodec} (if available)
+ *  instead of reflection.
+ *  
+ *  A decoder that reads compressed data should be closed after
+ *  reading (see {@link #close()}). This verifies the data following
+ *  the value read and releases the decompression resources.
  */
 @SuppressWarnings({ "PMD.CouplingBetweenObjects", "PMD.CyclomaticComplexity",
     "PMD.TooManyMethods", "PMD.AvoidDuplicateLiterals",
     "PMD.DataflowAnomalyAnalysis" })
-public class JsonBeanDecoder extends JsonCodec {
+public class JsonBeanDecoder extends JsonCodec implements Closeable {
 
     private static final Object END_VALUE = new Object();
+    /** Initial size of the buffers used for arrays of numbers. */
+    private static final int ARRAY_BUFFER_SIZE = 16;
     @SuppressWarnings("PMD.UseConcurrentHashMap")
     private final Map<String, Class<?>> aliases = new HashMap<>();
     private boolean skipUnknown;
@@ -138,7 +178,13 @@ public class JsonBeanDecoder extends JsonCodec {
                 }
             };
     private final JsonParser parser;
+    private InputStream decompressed;
     private final Map<String, OpenType<?>> openTypes;
+    private TemporalCodec temporalCodec;
+    private List<Object> references;
+    @SuppressWarnings("PMD.UseConcurrentHashMap")
+    private final Map<Class<?>, Map<String, String[]>> schemas
+        = new HashMap<>();
 
     /*
      * (non-Javadoc)
@@ -181,6 +227,82 @@ public class JsonBeanDecoder extends JsonCodec {
         return this;
     }
 
+    /**
+     * Cause this decoder to set the fields of the given classes 
+     * directly instead of using their properties. If no classes are
+     * given, the fields of all objects that would otherwise be
+     * created as JavaBeans are set. This allows objects without setters
+     * to be decoded (see {@link JsonBeanEncoder#useFields(Class...)}).
+     * 
+     * The objects are created as described in the class description.
+     * The remaining values are assigned to the fields using
+     * {@link java.lang.invoke.VarHandle}s, which are obtained once per
+     * class. Final fields that have not been set by the constructor 
+     * are set using reflection, which may fail when using Java modules.
+     * 
+     * @param classes the classes
+     * @return the decoder for chaining
+     */
+    public JsonBeanDecoder useFields(Class<?>... classes) {
+        enableFields(classes);
+        return this;
+    }
+
+    /**
+     * Adds a schema for JavaBeans of the given class written as
+     * arrays of property values (see 
+     * {@link JsonBeanEncoder#usePositional()}).
+     * 
+     * When reading such an array, the decoder compares the 
+     * fingerprint in the array with the fingerprint of the names
+     * and types of the properties of the expected class. If they 
+     * match, the values are assigned to the properties in the order
+     * used by the encoder. Else, the values are assigned to the properties
+     * with the names from the schema with the fingerprint from the 
+     * array. This allows data written with a previous version of
+     * the class to be decoded. Values for names that are not
+     * properties of the class are handled like unknown keys in
+     * JSON objects (see {@link #skipUnknown()}). If no schema 
+     * matches, decoding fails.
+     * 
+     * Values are decoded using the types of the properties of the
+     * class. The types from the schema are only used to calculate 
+     * its fingerprint.
+     * 
+     * @param clazz the class
+     * @param names the names of the properties in the order
+     * used by the encoder 
+     * @param types the types of the properties as declared by
+     * the class used by the encoder
+     * @return the decoder for chaining
+     */
+    public JsonBeanDecoder addSchema(Class<?> clazz, String[] names,
+            Class<?>... types) {
+        schemas.computeIfAbsent(clazz, k -> new HashMap<>())
+            .put(BeanWritePlan.fingerprint(names, types), names.clone());
+        return this;
+    }
+
+    /**
+     * Cause this decoder to resolve the references written by an
+     * encoder with references enabled (see 
+     * {@link JsonBeanEncoder#useReferences()}). A JSON object
+     * with the single key "$ref" is replaced by the object with
+     * the given number, i.e. the same instance is used.
+     * 
+     * References to a JavaBean that is still being decoded
+     * (as found in cyclic graphs) can only be resolved if the 
+     * JavaBean is created with its default constructor. JavaBeans 
+     * that are created using a constructor with 
+     * {@link ConstructorProperties} cannot be part of a cycle.
+     * 
+     * @return the decoder for chaining
+     */
+    public JsonBeanDecoder useReferences() {
+        references = new ArrayList<>();
+        return this;
+    }
+
     /**
      * Create a new decoder using a default {@link JsonParser}. 
      * 
@@ -210,6 +332,144 @@ public class JsonBeanDecoder extends JsonCodec {
         }
     }
 
+    /**
+     * Create a new decoder using a default parser to parse the
+     * JSON (in any of the encodings supported by 
+     * {@link JsonFactory#createParser(InputStream)}) provided by
+     * the given stream. If the stream starts with the gzip magic
+     * bytes, the data is decompressed while being parsed. 
+     * 
+     * @param input the source
+     * @return the decoder
+     */
+    public static JsonBeanDecoder create(InputStream input) {
+        return create(defaultFactory(), input);
+    }
+
+    /**
+     * Create a new decoder using a default parser to parse the
+     * JSON provided as bytes. If the data starts with the gzip magic
+     * bytes, it is decompressed while being parsed.
+     * 
+     * @param input the input
+     * @return the decoder
+     */
+    public static JsonBeanDecoder create(byte[] input) {
+        return create(defaultFactory(), input);
+    }
+
+    /**
+     * Create a new decoder using a parser created by the given
+     * factory to parse the given stream. The factory may be any 
+     * Jackson factory for a format with a data model compatible
+     * to JSON, such as Smile or CBOR. If the stream starts with 
+     * the gzip magic bytes, the data is decompressed while being
+     * parsed. 
+     * 
+     * @param factory the factory
+     * @param input the source
+     * @return the decoder
+     */
+    public static JsonBeanDecoder create(JsonFactory factory,
+            InputStream input) {
+        try {
+            return forDecompressed(factory,
+                CompressedStreams.detectGzip(input));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Create a new decoder using a parser created by the given
+     * factory to parse the given bytes (see 
+     * {@link #create(JsonFactory, InputStream)}).
+     * 
+     * @param factory the factory
+     * @param input the input
+     * @return the decoder
+     */
+    public static JsonBeanDecoder create(JsonFactory factory, byte[] input) {
+        if (CompressedStreams.isGzip(input)) {
+            return create(factory, new ByteArrayInputStream(input));
+        }
+        try {
+            return new JsonBeanDecoder(factory.createParser(input));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Create a new decoder using a default parser to parse the
+     * JSON obtained by decompressing the data provided by the 
+     * given stream. The (native) decompression resources are pooled 
+     * and released as soon as the end of the compressed data has
+     * been reached or the decoder is closed (see {@link #close()}).
+     * 
+     * @param input the source of the compressed data
+     * @param compression the compression format
+     * @return the decoder
+     */
+    public static JsonBeanDecoder createCompressed(InputStream input,
+            Compression compression) {
+        return createCompressed(defaultFactory(), input, compression);
+    }
+
+    /**
+     * Like {@link #createCompressed(InputStream, Compression)},
+     * but uses a parser created by the given factory 
+     * (see {@link #create(JsonFactory, InputStream)}).
+     * 
+     * @param factory the factory
+     * @param input the source of the compressed data
+     * @param compression the compression format
+     * @return the decoder
+     */
+    public static JsonBeanDecoder createCompressed(JsonFactory factory,
+            InputStream input, Compression compression) {
+        try {
+            return forDecompressed(factory,
+                CompressedStreams.decompressing(input, compression));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Create a new decoder using a default parser to parse the
+     * JSON obtained by decompressing the data provided by the 
+     * given stream with one of the given dictionaries (see
+     * {@link JsonBeanEncoder#createCompressed(java.io.OutputStream, 
+     * CompressionDictionary)}). The dictionary is selected by the
+     * id found at the start of the data. The checksum at the end
+     * of the data is verified when the end is reached or the
+     * decoder is closed (see {@link #close()}).
+     * 
+     * @param input the source of the compressed data
+     * @param dictionaries the dictionaries
+     * @return the decoder
+     * @throws IllegalArgumentException if the data cannot be read
+     * or none of the dictionaries has the required id
+     */
+    public static JsonBeanDecoder createCompressed(InputStream input,
+            CompressionDictionary... dictionaries) {
+        try {
+            return forDecompressed(defaultFactory(),
+                CompressedStreams.decompressing(input, dictionaries));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static JsonBeanDecoder forDecompressed(JsonFactory factory,
+            InputStream decompressed) throws IOException {
+        JsonBeanDecoder decoder
+            = new JsonBeanDecoder(factory.createParser(decompressed));
+        decoder.decompressed = decompressed;
+        return decoder;
+    }
+
     /**
      * Create a new decoder using the given parser. 
      * 
@@ -233,6 +493,27 @@ public class JsonBeanDecoder extends JsonCodec {
         openTypes = new HashMap<>(simpleOpenTypesMap());
     }
 
+    /**
+     * Closes the decoder. If the decoder has been created for 
+     * compressed data, the compressed data not read yet is read and
+     * verified, and the (native) decompression resources are released.
+     * Then the parser is closed, which closes the source if
+     * {@link JsonParser.Feature#AUTO_CLOSE_SOURCE} is enabled.
+     *
+     * @throws IOException if the remaining compressed data cannot
+     * be read or is corrupt
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (decompressed != null) {
+                CompressedStreams.finish(decompressed);
+            }
+        } finally {
+            parser.close();
+        }
+    }
+
     /**
      * Read a JSON object description into a new {@link JsonObject}.
      *
@@ -301,6 +582,14 @@ public class JsonBeanDecoder extends JsonCodec {
         case VALUE_TRUE:
             return (T) Boolean.TRUE;
         case VALUE_STRING:
+            if (isBinary(expected)) {
+                return readBinary(expected);
+            }
+            if (TemporalCodec.isSupported(expected)) {
+                return (T) temporalCodec().parse(expected,
+                    parser.getTextCharacters(), parser.getTextOffset(),
+                    parser.getTextLength());
+            }
             PropertyEditor propertyEditor = findPropertyEditor(expected);
             if (propertyEditor != null) {
                 propertyEditor.setAsText(parser.getText());
@@ -313,17 +602,34 @@ public class JsonBeanDecoder extends JsonCodec {
             if (openType instanceof ArrayType) {
                 return (T) readArrayValues((ArrayType<?>) openType);
             }
+            if (ByteBuffer.class.equals(expected)) {
+                // Written as array of numbers
+                return (T) ByteBuffer.wrap(readArrayValues(byte[].class));
+            }
+            if (Stream.class.equals(expected)) {
+                return (T) readArrayValues(Collection.class).stream();
+            }
             if (expected.isArray()
                 || Collection.class.isAssignableFrom(expected)
+                || Iterable.class.equals(expected)
                 || expected.equals(Object.class)) {
                 return (T) readArrayValues(expected);
             }
-            throw new JsonDecodeException(parser.getCurrentLocation()
-                + ": Encountered unexpected array.");
+            return readPositional(expected);
         case START_OBJECT:
             return readObjectValue(expected);
+        case VALUE_EMBEDDED_OBJECT:
+            // Binary data from non-textual formats
+            if (isBinary(expected)) {
+                return readBinary(expected);
+            }
+            return (T) parser.getEmbeddedObject();
         default:
             if (token.isScalarValue()) {
+                if (TemporalCodec.hasEpochMillis(expected)) {
+                    return (T) TemporalCodec.fromEpochMillis(expected,
+                        parser.getValueAsLong());
+                }
                 if (openType instanceof SimpleType) {
                     return readNumber(simpleToJavaType(openType));
                 }
@@ -334,6 +640,27 @@ public class JsonBeanDecoder extends JsonCodec {
         }
     }
 
+    private TemporalCodec temporalCodec() {
+        if (temporalCodec == null) {
+            temporalCodec = new TemporalCodec();
+        }
+        return temporalCodec;
+    }
+
+    private static boolean isBinary(Class<?> expected) {
+        return byte[].class.equals(expected)
+            || ByteBuffer.class.equals(expected);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T readBinary(Class<T> expected) throws IOException {
+        byte[] data = parser.getBinaryValue();
+        if (ByteBuffer.class.equals(expected)) {
+            return (T) ByteBuffer.wrap(data);
+        }
+        return (T) data;
+    }
+
     private <T> T maybeParse(Class<T> expected, String text) {
         if (expected.equals(Object.class)
             || expected.isAssignableFrom(String.class)) {
@@ -410,6 +737,13 @@ public class JsonBeanDecoder extends JsonCodec {
 
     private <T> T readArrayValues(Class<T> arrayType)
             throws JsonDecodeException, IOException {
+        if (arrayType.isArray()
+            && arrayType.getComponentType().isPrimitive()) {
+            Object values = readPrimitiveArray(arrayType.getComponentType());
+            if (values != null) {
+                return arrayType.cast(values);
+            }
+        }
         Collection<?> items = createCollection(arrayType);
         Class<?> elementType = Object.class;
         if (arrayType.isArray()) {
@@ -441,6 +775,15 @@ public class JsonBeanDecoder extends JsonCodec {
 
     private <T> T readArrayValues(ArrayType<T> arrayOpenType)
             throws JsonDecodeException, IOException {
+        if (arrayOpenType.isPrimitiveArray()) {
+            Object values = readPrimitiveArray(
+                simpleToJavaType(arrayOpenType.getElementOpenType()));
+            if (values != null) {
+                @SuppressWarnings("unchecked")
+                T result = (T) values;
+                return result;
+            }
+        }
         Collection<?> items = new ArrayList<>();
         OpenType<?> elementType = arrayOpenType.getElementOpenType();
         while (true) {
@@ -474,6 +817,148 @@ public class JsonBeanDecoder extends JsonCodec {
         return result;
     }
 
+    /**
+     * Reads the elements of an array of numbers of the given primitive
+     * type (which may also be specified by its wrapper type) without
+     * boxing. The elements are collected in a buffer that grows as 
+     * needed and is trimmed to the final array. Returns `null` if the 
+     * type isn't a numeric primitive type. 
+     */
+    private Object readPrimitiveArray(Class<?> type)
+            throws JsonDecodeException, IOException {
+        if (type == int.class || type == Integer.class) {
+            return readIntArray();
+        }
+        if (type == long.class || type == Long.class) {
+            return readLongArray();
+        }
+        if (type == double.class || type == Double.class) {
+            return readDoubleArray();
+        }
+        if (type == float.class || type == Float.class) {
+            return readFloatArray();
+        }
+        if (type == short.class || type == Short.class) {
+            return readShortArray();
+        }
+        if (type == byte.class || type == Byte.class) {
+            return readByteArray();
+        }
+        return null;
+    }
+
+    private boolean nextArrayNumber() throws JsonDecodeException, IOException {
+        return nextArrayNumber(false);
+    }
+
+    /**
+     * Advances to the next element of an array of numbers.
+     *
+     * @param floating if strings are accepted, because the encoder
+     * writes NaN and infinite values of floating point numbers as
+     * strings
+     * @return true, if there is a next element
+     */
+    private boolean nextArrayNumber(boolean floating)
+            throws JsonDecodeException, IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            return false;
+        }
+        if (token == null || !token.isNumeric()
+            && !(floating && token == JsonToken.VALUE_STRING)) {
+            throw new JsonDecodeException(parser.getCurrentLocation()
+                + ": Expected number in array of numbers, found " + token);
+        }
+        return true;
+    }
+
+    private double arrayDouble() throws JsonDecodeException, IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            return parser.getValueAsDouble();
+        }
+        try {
+            return Double.parseDouble(parser.getText());
+        } catch (NumberFormatException e) {
+            throw new JsonDecodeException(parser.getCurrentLocation()
+                + ": Expected number in array of numbers, found \""
+                + parser.getText() + "\"", e);
+        }
+    }
+
+    private int[] readIntArray() throws JsonDecodeException, IOException {
+        int[] buffer = new int[ARRAY_BUFFER_SIZE];
+        int size = 0;
+        while (nextArrayNumber()) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, size * 2);
+            }
+            buffer[size++] = parser.getValueAsInt();
+        }
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private long[] readLongArray() throws JsonDecodeException, IOException {
+        long[] buffer = new long[ARRAY_BUFFER_SIZE];
+        int size = 0;
+        while (nextArrayNumber()) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, size * 2);
+            }
+            buffer[size++] = parser.getValueAsLong();
+        }
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private double[] readDoubleArray()
+            throws JsonDecodeException, IOException {
+        double[] buffer = new double[ARRAY_BUFFER_SIZE];
+        int size = 0;
+        while (nextArrayNumber(true)) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, size * 2);
+            }
+            buffer[size++] = arrayDouble();
+        }
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private float[] readFloatArray() throws JsonDecodeException, IOException {
+        float[] buffer = new float[ARRAY_BUFFER_SIZE];
+        int size = 0;
+        while (nextArrayNumber(true)) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, size * 2);
+            }
+            buffer[size++] = (float) arrayDouble();
+        }
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private short[] readShortArray() throws JsonDecodeException, IOException {
+        short[] buffer = new short[ARRAY_BUFFER_SIZE];
+        int size = 0;
+        while (nextArrayNumber()) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, size * 2);
+            }
+            buffer[size++] = (short) parser.getValueAsInt();
+        }
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private byte[] readByteArray() throws JsonDecodeException, IOException {
+        byte[] buffer = new byte[ARRAY_BUFFER_SIZE];
+        int size = 0;
+        while (nextArrayNumber()) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, size * 2);
+            }
+            buffer[size++] = (byte) parser.getValueAsInt();
+        }
+        return Arrays.copyOf(buffer, size);
+    }
+
     private <T> Collection<?> createCollection(Class<T> arrayType)
             throws JsonDecodeException {
         if (!Collection.class.isAssignableFrom(arrayType)) {
@@ -510,6 +995,9 @@ public class JsonBeanDecoder extends JsonCodec {
         Class<?> actualCls = expected;
         if (prefetched.equals(JsonToken.FIELD_NAME)) {
             String key = parser.getText();
+            if (references != null && "$ref".equals(key)) {
+                return resolveReference(expected);
+            }
             if ("class".equals(key)) {
                 prefetched = null; // Now it's consumed
                 OpenType<?> openType;
@@ -545,6 +1033,9 @@ public class JsonBeanDecoder extends JsonCodec {
             @SuppressWarnings("unchecked")
             Map<String, Object> map = createMapInstance(
                 (Class<Map<String, Object>>) actualCls);
+            if (references != null) {
+                references.add(map);
+            }
             objectIntoMap(map, prefetched);
             @SuppressWarnings("unchecked")
             T result = (T) map;
@@ -552,7 +1043,83 @@ public class JsonBeanDecoder extends JsonCodec {
         }
         @SuppressWarnings("unchecked")
         Class<T> beanCls = (Class<T>) actualCls;
-        return objectToBean(beanCls, prefetched);
+        JsonToken first = prefetched;
+        return objectToBean(beanCls,
+            (table, consumer) -> readProperties(table, consumer, first));
+    }
+
+    private <T> T readPositional(Class<T> beanCls)
+            throws JsonDecodeException, IOException {
+        BeanWritePlan plan = null;
+        if (parser.nextToken() == JsonToken.VALUE_STRING
+            && !beanCls.isPrimitive()) {
+            plan = usesFields(beanCls) ? BeanWritePlan.forFields(beanCls)
+                : null;
+            if (plan == null) {
+                plan = BeanWritePlan.forClass(beanCls);
+            }
+        }
+        if (plan == null) {
+            throw new JsonDecodeException(parser.getCurrentLocation()
+                + ": Encountered unexpected array.");
+        }
+        String fingerprint = parser.getText();
+        String[] names = fingerprint.equals(plan.fingerprint()) ? plan.names()
+            : schemas.getOrDefault(beanCls, Collections.emptyMap())
+                .get(fingerprint);
+        if (names == null) {
+            throw new JsonDecodeException(parser.getCurrentLocation()
+                + ": No schema with fingerprint " + fingerprint + " for "
+                + beanCls.getName());
+        }
+        return objectToBean(beanCls, (table, consumer) -> {
+            for (String name : names) {
+                int index = table.indexOf(name);
+                Object value;
+                if (index < 0) {
+                    value = readValue(Object.class, null);
+                } else {
+                    value = readValue(table.type(index), null);
+                }
+                if (value == END_VALUE) {
+                    throw new JsonDecodeException(parser.getCurrentLocation()
+                        + ": Missing value for " + name);
+                }
+                consumer.accept(index, name, value);
+            }
+            if (parser.nextToken() != JsonToken.END_ARRAY) {
+                throw new JsonDecodeException(parser.getCurrentLocation()
+                    + ": More values than properties.");
+            }
+        });
+    }
+
+    private <T> T resolveReference(Class<T> expected)
+            throws JsonDecodeException, IOException {
+        if (!parser.nextToken().isNumeric()) {
+            throw new JsonDecodeException(parser.getCurrentLocation()
+                + ": Reference must be a number.");
+        }
+        int index = parser.getValueAsInt();
+        if (parser.nextToken() != JsonToken.END_OBJECT) {
+            throw new JsonDecodeException(parser.getCurrentLocation()
+                + ": Reference must be the only key.");
+        }
+        if (index < 0 || index >= references.size()) {
+            throw new JsonDecodeException(parser.getCurrentLocation()
+                + ": Unknown reference " + index);
+        }
+        Object result = references.get(index);
+        if (result == null) {
+            throw new JsonDecodeException(parser.getCurrentLocation()
+                + ": Reference " + index + " to object under construction.");
+        }
+        if (!expected.isInstance(result)) {
+            throw new JsonDecodeException(parser.getCurrentLocation()
+                + ": Expected " + expected.getName()
+                + " found " + result.getClass().getName());
+        }
+        return expected.cast(result);
     }
 
     private <M extends Map<String, Object>> M createMapInstance(Class<M> mapCls)
@@ -592,102 +1159,308 @@ public class JsonBeanDecoder extends JsonCodec {
         }
     }
 
-    private <T> T objectToBean(Class<T> beanCls, JsonToken prefetched)
+    private <T> T objectToBean(Class<T> beanCls, PropertySource source)
             throws JsonDecodeException, IOException {
-        BeanInfo beanInfo = findBeanInfo(beanCls);
-        if (beanInfo == null) {
+        if (usesFields(beanCls)) {
+            FieldPlan fields = FieldPlan.forClass(beanCls);
+            if (fields != null) {
+                return objectToBean(fields, fields.table(),
+                    ConstructorPlan.forClass(beanCls).size() > 0,
+                    props -> createBean(beanCls, props), source);
+            }
+        }
+        BeanCodec<T> codec = BeanCodec.forClass(beanCls);
+        if (codec != null) {
+            return objectToBean(codec, codec.table(),
+                codec.constructorOrder().length > 0,
+                props -> createBean(codec, props), source);
+        }
+        RecordPlan record = RecordPlan.forClass(beanCls);
+        if (record != null) {
+            return beanCls.cast(objectToRecord(record, source));
+        }
+        BeanReadPlan plan = BeanReadPlan.forClass(beanCls);
+        if (plan == null) {
             throw new JsonDecodeException(parser.getCurrentLocation()
                 + ": Cannot introspect " + beanCls);
         }
-        @SuppressWarnings("PMD.UseConcurrentHashMap")
-        Map<String, PropertyDescriptor> beanProps = new HashMap<>();
-        for (PropertyDescriptor p : beanInfo.getPropertyDescriptors()) {
-            beanProps.put(p.getName(), p);
+        return objectToBean(plan, plan.table(),
+            ConstructorPlan.forClass(beanCls).size() > 0,
+            props -> createBean(beanCls, props), source);
+    }
+
+    private <T> T objectToBean(PropertySetter setter, PropertyTable table,
+            boolean hasConstructorProperties, BeanFactory<T> factory,
+            PropertySource source) throws JsonDecodeException, IOException {
+        if (!hasConstructorProperties) {
+            // Create first and set the values as they are parsed.
+            T result = factory.create(Collections.emptyMap());
+            if (references != null) {
+                // Create early, may be referenced by nested objects.
+                references.add(result);
+            }
+            source.read(table, (index, key, value) -> {
+                if (index >= 0) {
+                    setProperty(result, setter, table, index, value);
+                    return;
+                }
+                if (!skipUnknown) {
+                    throw new JsonDecodeException(parser.getCurrentLocation()
+                        + ": No bean property for key " + key);
+                }
+            });
+            return result;
         }
 
+        // Reserve the bean's number before decoding nested objects
+        int refIndex = reserveReference();
+
         // Get properties as map first.
-        Map<String, Object> propsMap = parseProperties(beanProps, prefetched);
+        Map<String, Object> propsMap = collectProperties(source, table);
 
-        // Prepare result, using constructor with parameters if available.
-        T result = createBean(beanCls, propsMap);
+        // Create result, using constructor with parameters.
+        T result = factory.create(propsMap);
+        if (refIndex >= 0) {
+            references.set(refIndex, result);
+        }
 
-        // Set (remaining) properties.
+        // Set remaining properties.
         for (Map.Entry<String, ?> e : propsMap.entrySet()) {
-            PropertyDescriptor property = beanProps.get(e.getKey());
-            if (property == null) {
+            int index = table.indexOf(e.getKey());
+            if (index < 0) {
                 if (skipUnknown) {
                     continue;
                 }
                 throw new JsonDecodeException(parser.getCurrentLocation()
                     + ": No bean property for key " + e.getKey());
             }
-            setProperty(result, property, e.getValue());
+            setProperty(result, setter, table, index, e.getValue());
         }
         return result;
     }
 
-    private <T> T createBean(Class<T> beanCls, Map<String, Object> propsMap)
+    private int reserveReference() {
+        if (references == null) {
+            return -1;
+        }
+        references.add(null);
+        return references.size() - 1;
+    }
+
+    @SuppressWarnings({ "PMD.CognitiveComplexity",
+        "PMD.AvoidCatchingThrowable" })
+    private Object objectToRecord(RecordPlan record, PropertySource source)
+            throws JsonDecodeException, IOException {
+        // Reserve the record's number before decoding nested objects
+        int refIndex = reserveReference();
+
+        // Components not provided get the default value of their type.
+        Object[] args = record.defaultArguments();
+        source.read(record.table(), (index, key, value) -> {
+            if (index >= 0) {
+                args[index] = value;
+                return;
+            }
+            if (!skipUnknown) {
+                throw new JsonDecodeException(parser.getCurrentLocation()
+                    + ": No bean property for key " + key);
+            }
+        });
+
+        try {
+            Object result = record.newInstance(args);
+            if (refIndex >= 0) {
+                references.set(refIndex, result);
+            }
+            return result;
+        } catch (Throwable e) {
+            throw new JsonDecodeException(parser.getCurrentLocation()
+                + ": Cannot create " + record.recordClass().getName(), e);
+        }
+    }
+
+    private <T> T createBean(BeanCodec<T> codec, Map<String, Object> propsMap)
             throws JsonDecodeException {
         try {
-            SortedMap<ConstructorProperties, Constructor<T>> cons
-                = new TreeMap<>(Comparator.comparingInt(
-                    (ConstructorProperties cp) -> cp.value().length)
-                    .reversed());
-            for (Constructor<?> c : beanCls.getConstructors()) {
-                ConstructorProperties[] allCps = c.getAnnotationsByType(
-                    ConstructorProperties.class);
-                if (allCps.length > 0) {
-                    @SuppressWarnings("unchecked")
-                    Constructor<T> beanConstructor = (Constructor<T>) c;
-                    cons.put(allCps[0], beanConstructor);
+            int[] order = codec.constructorOrder();
+            for (int constructor : order) {
+                String[] conProps = codec.constructorProperties(constructor);
+                if (containsAll(propsMap, conProps)) {
+                    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+                    Object[] args = new Object[conProps.length];
+                    for (int i = 0; i < conProps.length; i++) {
+                        args[i] = propsMap.remove(conProps[i]);
+                    }
+                    return codec.newInstance(constructor, args);
                 }
             }
-            for (Map.Entry<ConstructorProperties, Constructor<T>> e : cons
-                .entrySet()) {
-                String[] conProps = e.getKey().value();
-                if (propsMap.keySet().containsAll(Arrays.asList(conProps))) {
+            if (order.length == 0 || codec.hasDefaultConstructor()) {
+                return codec.newInstance();
+            }
+
+            // See createBean(Class, Map)
+            String[] conProps = codec.constructorProperties(order[0]);
+            Object[] args = new Object[conProps.length];
+            for (int i = 0; i < conProps.length; i++) {
+                int index = codec.indexOf(conProps[i]);
+                args[i] = propsMap.containsKey(conProps[i])
+                    ? propsMap.remove(conProps[i])
+                    : index < 0 ? null : typeDefault(codec.type(index));
+            }
+            return codec.newInstance(order[0], args);
+        } catch (RuntimeException e) {
+            throw new JsonDecodeException(parser.getCurrentLocation()
+                + ": Cannot create " + codec.beanClass().getName(), e);
+        }
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    private <T> T createBean(Class<T> beanCls, Map<String, Object> propsMap)
+            throws JsonDecodeException {
+        ConstructorPlan plan = ConstructorPlan.forClass(beanCls);
+        try {
+            for (int constructor = 0; constructor < plan.size();
+                    constructor++) {
+                String[] conProps = plan.parameters(constructor);
+                if (containsAll(propsMap, conProps)) {
                     @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
                     Object[] args = new Object[conProps.length];
                     for (int i = 0; i < conProps.length; i++) {
                         args[i] = propsMap.remove(conProps[i]);
                     }
-                    return e.getValue().newInstance(args);
+                    return beanCls.cast(plan.newInstance(constructor, args));
                 }
             }
+            if (plan.size() == 0 || plan.hasDefaultConstructor()) {
+                return beanCls.cast(plan.newInstance());
+            }
 
-            return beanCls.getDeclaredConstructor().newInstance();
-        } catch (InstantiationException | IllegalAccessException
-                | IllegalArgumentException | InvocationTargetException
-                | NoSuchMethodException | SecurityException e) {
+            // Values may have been omitted (see JsonBeanEncoder.omitNulls
+            // and omitDefaults), use the constructor with most properties.
+            String[] conProps = plan.parameters(0);
+            Object[] args = plan.defaultArguments(0);
+            for (int i = 0; i < conProps.length; i++) {
+                if (propsMap.containsKey(conProps[i])) {
+                    args[i] = propsMap.remove(conProps[i]);
+                }
+            }
+            return beanCls.cast(plan.newInstance(0, args));
+        } catch (Throwable e) {
             throw new JsonDecodeException(parser.getCurrentLocation()
                 + ": Cannot create " + beanCls.getName(), e);
         }
     }
 
-    private Map<String, Object> parseProperties(
-            Map<String, PropertyDescriptor> beanProps, JsonToken prefetched)
-            throws JsonDecodeException, IOException {
+    private static boolean containsAll(Map<String, Object> propsMap,
+            String... keys) {
+        for (String key : keys) {
+            if (!propsMap.containsKey(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Provides the key/value pairs used to create a JavaBean.
+     */
+    @FunctionalInterface
+    private interface PropertySource {
+        /**
+         * Reads the key/value pairs and passes them to the consumer.
+         *
+         * @param table the properties that can be set
+         * @param consumer the consumer
+         */
+        void read(PropertyTable table, PropertyConsumer consumer)
+                throws JsonDecodeException, IOException;
+    }
+
+    /**
+     * Creates a JavaBean, using the values from the map as
+     * constructor arguments where required. The values used are
+     * removed from the map.
+     *
+     * @param <T> the bean type
+     */
+    @FunctionalInterface
+    private interface BeanFactory<T> {
+        /**
+         * Creates the bean.
+         *
+         * @param props the property values
+         * @return the bean
+         */
+        T create(Map<String, Object> props) throws JsonDecodeException;
+    }
+
+    /**
+     * Consumes the key/value pairs from a {@link PropertySource}.
+     */
+    @FunctionalInterface
+    private interface PropertyConsumer {
+        /**
+         * Accepts a key/value pair.
+         *
+         * @param index the index of the property in the 
+         * {@link PropertyTable} or -1 if the key is unknown
+         * @param key the key
+         * @param value the value
+         */
+        void accept(int index, String key, Object value)
+                throws JsonDecodeException;
+    }
+
+    private Map<String, Object> collectProperties(PropertySource source,
+            PropertyTable table) throws JsonDecodeException, IOException {
         @SuppressWarnings("PMD.UseConcurrentHashMap")
         Map<String, Object> map = new HashMap<>();
+        source.read(table, (index, key, value) -> map.put(key, value));
+        return map;
+    }
+
+    @SuppressWarnings("PMD.CognitiveComplexity")
+    private void readProperties(PropertyTable table,
+            PropertyConsumer consumer, JsonToken prefetched)
+            throws JsonDecodeException, IOException {
+        int next = 0;
         whileLoop: while (true) {
-            @SuppressWarnings("PMD.ConfusingTernary")
-            JsonToken event
-                = (prefetched != null) ? prefetched : parser.nextToken();
-            prefetched = null; // Consumed.
+            JsonToken event;
+            int index = -1;
+            if (prefetched != null) {
+                event = prefetched;
+                prefetched = null; // Consumed.
+            } else if (next < table.size()) {
+                // Usually, keys are in the order used by the encoder.
+                if (parser.nextFieldName(table.serializedName(next))) {
+                    event = JsonToken.FIELD_NAME;
+                    index = next;
+                } else {
+                    event = parser.currentToken();
+                }
+            } else {
+                event = parser.nextToken();
+            }
             switch (event) {
             case END_OBJECT:
                 break whileLoop;
 
             case FIELD_NAME:
-                String key = parser.getText();
-                PropertyDescriptor property = beanProps.get(key);
+                String key;
+                if (index < 0) {
+                    key = parser.getText();
+                    index = table.indexOf(key);
+                } else {
+                    key = table.name(index);
+                }
                 Object value;
-                if (property == null) {
+                if (index < 0) {
                     value = readValue(Object.class, null);
                 } else {
-                    value = readValue(property.getPropertyType(), null);
+                    value = readValue(table.type(index), null);
+                    next = index + 1;
                 }
-                map.put(key, value);
+                consumer.accept(index, key, value);
                 break;
 
             default:
@@ -695,27 +1468,43 @@ public class JsonBeanDecoder extends JsonCodec {
                     + ": Unexpected Json event " + event);
             }
         }
-        return map;
     }
 
-    @SuppressWarnings({ "PMD.AvoidAccessibilityAlteration" })
-    private <T> void setProperty(T obj, PropertyDescriptor property,
-            Object value) throws JsonDecodeException {
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    private void setProperty(Object obj, PropertySetter setter,
+            PropertyTable table, int index, Object value)
+            throws JsonDecodeException {
+        boolean done;
+        try {
+            done = setter.setValue(obj, index, value);
+        } catch (Throwable e) {
+            throw new JsonDecodeException(parser.getCurrentLocation()
+                + ": Cannot write property " + table.name(index), e);
+        }
+        if (!done) {
+            setField(obj, table.name(index), value);
+        }
+    }
+
+    @SuppressWarnings({ "PMD.AvoidAccessibilityAlteration",
+        "PMD.AvoidCatchingThrowable" })
+    private void setField(Object obj, String name, Object value)
+            throws JsonDecodeException {
         try {
-            Method writeMethod = property.getWriteMethod();
-            if (writeMethod != null) {
-                writeMethod.invoke(obj, value);
+            FieldPlan fields = FieldPlan.forClass(obj.getClass());
+            int index = fields == null ? -1 : fields.table().indexOf(name);
+            if (index >= 0 && fields.setValue(obj, index, value)) {
                 return;
             }
-            Field propField = findField(obj.getClass(), property.getName());
+            // Not in plan, e.g. transient.
+            Field propField = findField(obj.getClass(), name);
             if (!propField.canAccess(obj)) {
                 propField.setAccessible(true);
             }
             propField.set(obj, value);
-        } catch (IllegalAccessException | IllegalArgumentException
-                | InvocationTargetException | NoSuchFieldException e) {
+        } catch (Throwable e) {
             throw new JsonDecodeException(parser.getCurrentLocation()
-                + ": Cannot write property " + property.getName(), e);
+                + ": Cannot write property " + name, e);
         }
     }
 
@@ -18,29 +18,56 @@
 
 package org.jdrupes.json;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
-import java.beans.BeanInfo;
-import java.beans.PropertyDescriptor;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.beans.ConstructorProperties;
 import java.beans.PropertyEditor;
 import java.beans.Transient;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
 import javax.management.ObjectName;
 import javax.management.openmbean.ArrayType;
 import javax.management.openmbean.CompositeData;
@@ -55,8 +82,11 @@ import javax.management.openmbean.TabularType;
  * OpenTypes.
  * 
  * Arrays and collections are converted to JSON arrays. The
- * type information is lost. Maps, JavaBeans and MBeans are converted
- * to JSON objects.
+ * type information is lost. The same applies to {@link Iterable}s,
+ * {@link Iterator}s and {@link Stream}s, which are written without
+ * materializing their content. (Iterables and iterators that have
+ * JavaBean properties are written as JavaBeans, however.) Maps, 
+ * JavaBeans and MBeans are converted to JSON objects.
  * 
  * The JSON description of objects can have an additional key/value pair with
  * key "class" and a class name. This class information is generated
@@ -145,21 +175,52 @@ import javax.management.openmbean.TabularType;
  * } 
  * ```
  * 
- * Values of type {@link Date} are converted to ISO8601 compliant strings.
+ * Values of type {@link Date} are converted to ISO8601 compliant strings
+ * (truncated to seconds). Values of type {@link Instant}, 
+ * {@link OffsetDateTime}, {@link LocalDate} and {@link LocalDateTime}
+ * are converted to strings as defined by the respective ISO formatters
+ * (see {@link DateTimeFormatter}). Alternatively, values that denote 
+ * an instant on the time line can be converted to milliseconds since
+ * the epoch (see {@link #useEpochMillis()}).
  * 
  * Values of type {@link ObjectName} are converted to their canonical 
  * string representation.
  * 
+ * Values of type `byte[]` and {@link ByteBuffer} are converted to
+ * arrays of numbers unless the encoder has been configured to
+ * use the generator's binary representation (see {@link #useBinary()}).
+ * 
  * If The value is of a {@link CompositeType} or {@link TabularType}
  * as used for MBeans' attributes, the OpenType description is generated
  * as value for the class key.
+ * 
+ * Besides JSON, the encoder can produce any format with a compatible
+ * data model for which a Jackson {@link JsonFactory} is available,
+ * e.g. Smile or CBOR (see {@link #create(JsonFactory, OutputStream)}).
+ * 
+ * Object graphs with shared JavaBeans or maps, including graphs with
+ * cycles, can be written if references are enabled (see
+ * {@link #useReferences()}).
+ * 
+ * The properties written for JavaBeans can be restricted using
+ * a {@link JsonView} (see {@link #writeObject(Object, JsonView)}).
  */
 @SuppressWarnings({ "PMD.CyclomaticComplexity", "PMD.AvoidDuplicateLiterals",
     "PMD.TooManyMethods", "PMD.DataflowAnomalyAnalysis" })
 public final class JsonBeanEncoder extends JsonCodec
         implements Flushable, Closeable {
 
-    private static final Set<String> EXCLUDED_DEFAULT = new HashSet<>();
+    /* default */ static final Set<String> EXCLUDED_DEFAULT = new HashSet<>();
+    private static final int ITERATOR_FLUSH_INTERVAL = 1000;
+    private static final int MIN_PARALLEL_CHUNK = 1000;
+    private static final SerializableString CLASS_KEY
+        = new SerializedString("class");
+    private static final SerializableString REF_KEY
+        = new SerializedString("$ref");
+    @SuppressWarnings({ "PMD.FieldNamingConventions",
+        "PMD.VariableNamingConventions" })
+    private static volatile ClassValue<ValueWriter> valueWriters
+        = createWriterTable();
 
     static {
         // See https://issues.apache.org/jira/browse/GROOVY-8284
@@ -170,10 +231,24 @@ public final class JsonBeanEncoder extends JsonCodec
     private final Map<Class<?>, String> aliases = new HashMap<>();
     private Set<String> excluded = EXCLUDED_DEFAULT;
     private boolean omitClass;
+    private boolean useBinary;
+    private boolean useEpochMillis;
+    private boolean omitNulls;
+    private boolean omitDefaults;
+    private boolean omitEmpty;
+    private boolean positional;
+    private ForkJoinPool parallelPool;
+    private int parallelThreshold;
+    private TemporalCodec temporalCodec;
+    private JsonFactory factory = defaultFactory();
     private JsonGenerator gen;
     private StringWriter writer;
+    private ByteArraySink byteSink;
+    private ByteBufferChain bufferSink;
     @SuppressWarnings("PMD.UseConcurrentHashMap")
     private final Map<String, Boolean> described = new HashMap<>();
+    private Map<Object, Integer> references;
+    private JsonView view;
 
     @Override
     public JsonBeanEncoder addAlias(Class<?> clazz, String alias) {
@@ -197,6 +272,212 @@ public final class JsonBeanEncoder extends JsonCodec
         return this;
     }
 
+    /**
+     * Configure the encoder to write values of type `byte[]` and
+     * {@link ByteBuffer} (the remaining bytes) using
+     * {@link JsonGenerator#writeBinary(byte[], int, int)}. For JSON,
+     * this results in a Base64 encoded string, which is much more
+     * compact than the default array of numbers.
+     * 
+     * The {@link JsonBeanDecoder} accepts both representations if
+     * the expected type is `byte[]` or {@link ByteBuffer}.
+     * 
+     * @return the encoder for easy chaining
+     */
+    public JsonBeanEncoder useBinary() {
+        useBinary = true;
+        return this;
+    }
+
+    /**
+     * Configure the encoder to write values of type {@link Date},
+     * {@link Instant} and {@link OffsetDateTime} as number of 
+     * milliseconds since the epoch instead of ISO 8601 strings.
+     * Note that the offset of {@link OffsetDateTime}s is lost.
+     * 
+     * @return the encoder for easy chaining
+     */
+    public JsonBeanEncoder useEpochMillis() {
+        useEpochMillis = true;
+        return this;
+    }
+
+    /**
+     * Configure the encoder to omit properties of JavaBeans and
+     * entries of maps with value `null`. 
+     * 
+     * When decoding, the properties of a JavaBean that are not 
+     * provided keep the values set by the constructor. This restores
+     * the omitted values if the properties are initially `null`.
+     * 
+     * @return the encoder for easy chaining
+     */
+    public JsonBeanEncoder omitNulls() {
+        omitNulls = true;
+        return this;
+    }
+
+    /**
+     * Configure the encoder to omit properties of JavaBeans that
+     * have their default value. The default values are the values
+     * of an instance created with the JavaBean's constructor without
+     * parameters, which is the constructor that the 
+     * {@link JsonBeanDecoder} uses, regardless of its visibility. 
+     * If there is no such constructor, the defaults are zero or 
+     * `false` for primitive types and `null` for all other types, 
+     * which is what the {@link JsonBeanDecoder} passes to a 
+     * constructor with {@link ConstructorProperties} for properties
+     * that are not provided.
+     * 
+     * The instance is created, and every getter is invoked on it,
+     * once per class, when a JavaBean of the class is written for 
+     * the first time. Constructor and getters should therefore be 
+     * free of side effects.
+     * 
+     * @return the encoder for easy chaining
+     */
+    public JsonBeanEncoder omitDefaults() {
+        omitDefaults = true;
+        return this;
+    }
+
+    /**
+     * Configure the encoder to omit properties of JavaBeans and 
+     * entries of maps with an empty array, {@link Collection} or
+     * {@link Map} as value. 
+     * 
+     * When decoding, the properties of a JavaBean that are not
+     * provided keep the values set by the constructor. This restores
+     * the omitted values only if the properties are initialized
+     * with empty containers.
+     * 
+     * @return the encoder for easy chaining
+     */
+    public JsonBeanEncoder omitEmpty() {
+        omitEmpty = true;
+        return this;
+    }
+
+    /**
+     * Configure the encoder to write JavaBeans as arrays of their
+     * property values instead of objects, i.e. without the 
+     * property names. The order of the values is the order of
+     * the properties in the JSON object that would otherwise be
+     * written. The first element of the array is a fingerprint
+     * of the property names and types, which allows the 
+     * {@link JsonBeanDecoder} to check that it maps the values to 
+     * the same properties (see 
+     * {@link JsonBeanDecoder#addSchema(Class, String[], Class...)}).
+     * 
+     * As there is no place for the class information, a JavaBean
+     * is only written as array if its class is the expected class,
+     * i.e. the declared type of the property or the array's component
+     * type (or if class information is omitted, see 
+     * {@link #omitClass()}). JavaBeans are also written as objects 
+     * if a {@link JsonView} is used or if types have been excluded 
+     * with {@link #addExcluded(String)}, because the decoder 
+     * could not map the remaining values to the properties. Because
+     * the values are identified by their position, all values are 
+     * written, even if the options to omit values are used.
+     * 
+     * @return the encoder for easy chaining
+     */
+    public JsonBeanEncoder usePositional() {
+        positional = true;
+        return this;
+    }
+
+    /**
+     * Configure the encoder to write JavaBeans and maps that
+     * have already been written as references. Without this option,
+     * an object that is referenced several times is written several
+     * times and an object graph with a cycle cannot be written at all.
+     * 
+     * Every JavaBean and map written is assigned a number, starting
+     * with 0 and incremented in the order in which the objects are
+     * started. When the same instance (as determined by identity)
+     * is to be written again, a JSON object with the single key
+     * "$ref" and the object's number as value is written instead,
+     * e.g. `{"$ref": 3}`. The numbering continues across several
+     * invocations of {@link #writeObject(Object)} until the encoder
+     * is reset.
+     * 
+     * The result can only be restored properly by a 
+     * {@link JsonBeanDecoder} with references enabled (see
+     * {@link JsonBeanDecoder#useReferences()}). Parallel writing
+     * (see {@link #parallel(ForkJoinPool, int)}) is not used when
+     * references are enabled.
+     * 
+     * @return the encoder for easy chaining
+     */
+    public JsonBeanEncoder useReferences() {
+        references = new IdentityHashMap<>();
+        return this;
+    }
+
+    /**
+     * Configure the encoder to write the fields of the given classes
+     * instead of their properties. If no classes are given, the
+     * fields of all objects that would otherwise be written as
+     * JavaBeans (or using their `toString()` method) are written.
+     * This allows objects without getters to be written.
+     * 
+     * All non-static, non-transient fields of the class and its
+     * super classes are written, ordered by name. They are
+     * accessed using {@link java.lang.invoke.VarHandle}s, which 
+     * are obtained once per class. Fields that cannot be accessed
+     * (e.g. because the class is in a module that isn't open to
+     * this library) are ignored. If no field of a class can be
+     * accessed, the object is written as if field access wasn't
+     * configured. Records are always written using their components.
+     * 
+     * @param classes the classes
+     * @return the encoder for easy chaining
+     */
+    public JsonBeanEncoder useFields(Class<?>... classes) {
+        enableFields(classes);
+        return this;
+    }
+
+    /**
+     * Configure the encoder to write arrays of objects and
+     * collections that implement {@link List} and {@link RandomAccess}
+     * in parallel if they have at least `threshold` elements.
+     * 
+     * The elements are split into chunks which are encoded by the 
+     * given pool into separate buffers. The buffers are then 
+     * written to the output in order. The result is the same as
+     * when writing the elements sequentially. Parallel writing is
+     * therefore not used if the output is not textual JSON or uses
+     * a pretty printer, if it involves descriptions of
+     * {@link OpenType}s or if references are enabled (see
+     * {@link #useReferences()}).
+     * 
+     * Note that the elements must not be modified while being 
+     * written and that registered {@link PropertyEditor}s are
+     * invoked from several threads.
+     * 
+     * @param pool the pool used for encoding the chunks
+     * @param threshold the minimum number of elements
+     * @return the encoder for easy chaining
+     */
+    public JsonBeanEncoder parallel(ForkJoinPool pool, int threshold) {
+        parallelPool = pool;
+        parallelThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Invokes {@link #parallel(ForkJoinPool, int)} with the
+     * common pool.
+     * 
+     * @param threshold the minimum number of elements
+     * @return the encoder for easy chaining
+     */
+    public JsonBeanEncoder parallel(int threshold) {
+        return parallel(ForkJoinPool.commonPool(), threshold);
+    }
+
     /**
      * Add a type to excude from encoding, usually because it cannot
      * be converted to JSON. Properties of such types should be
@@ -228,6 +509,197 @@ public final class JsonBeanEncoder extends JsonCodec
         }
     }
 
+    /**
+     * Create a new encoder using a default {@link JsonGenerator}
+     * that writes UTF-8 encoded JSON to the given stream. This
+     * avoids the conversion from characters to bytes that is
+     * required when writing to a {@link Writer} that is eventually
+     * backed by a byte oriented sink.
+     * 
+     * @param out the sink
+     * @return the encoder
+     */
+    public static JsonBeanEncoder create(OutputStream out) {
+        try {
+            return new JsonBeanEncoder(
+                defaultFactory().createGenerator(out, JsonEncoding.UTF8));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Create a new encoder using a generator created by the given
+     * factory that writes to the given stream. The factory may be
+     * any Jackson factory for a format with a data model compatible
+     * to JSON, such as Smile or CBOR. The encoder uses the factory
+     * again when a new generator is needed (see {@link #reset()}
+     * and {@link #reset(OutputStream)}).
+     * 
+     * Formats that support binary data natively should be combined
+     * with {@link #useBinary()}.
+     * 
+     * @param factory the factory
+     * @param out the sink
+     * @return the encoder
+     */
+    public static JsonBeanEncoder create(JsonFactory factory,
+            OutputStream out) {
+        try {
+            JsonBeanEncoder encoder = new JsonBeanEncoder(
+                factory.createGenerator(out, JsonEncoding.UTF8));
+            encoder.factory = factory;
+            return encoder;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Create a new encoder using a default {@link JsonGenerator}
+     * that writes UTF-8 encoded JSON to a stream that compresses the
+     * data as it is generated and writes the result to the given 
+     * stream. The (native) compression resources are pooled.
+     * 
+     * The encoder must be closed (see {@link #close()}) to 
+     * complete the compressed data. Closing the encoder also closes
+     * the given stream.
+     * 
+     * @param out the sink for the compressed data
+     * @param compression the compression format
+     * @return the encoder
+     */
+    public static JsonBeanEncoder createCompressed(OutputStream out,
+            Compression compression) {
+        return createCompressed(defaultFactory(), out, compression);
+    }
+
+    /**
+     * Like {@link #createCompressed(OutputStream, Compression)}, 
+     * but uses a generator created by the given factory 
+     * (see {@link #create(JsonFactory, OutputStream)}).
+     * 
+     * @param factory the factory
+     * @param out the sink for the compressed data
+     * @param compression the compression format
+     * @return the encoder
+     */
+    public static JsonBeanEncoder createCompressed(JsonFactory factory,
+            OutputStream out, Compression compression) {
+        try {
+            return create(factory,
+                CompressedStreams.compressing(out, compression));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Create a new encoder using a default {@link JsonGenerator}
+     * that writes UTF-8 encoded JSON to a stream that deflates the
+     * data with the given preset dictionary. This is intended for 
+     * small messages such as {@link JsonRpc} requests. The output
+     * starts with the dictionary's id, followed by the raw deflated
+     * data and the data's CRC-32 and size. It can be read with 
+     * {@link JsonBeanDecoder#createCompressed(java.io.InputStream, 
+     * CompressionDictionary...)}.
+     * 
+     * The encoder must be closed (see {@link #close()}) to 
+     * complete the compressed data. Closing the encoder also closes
+     * the given stream.
+     * 
+     * @param out the sink for the compressed data
+     * @param dictionary the dictionary
+     * @return the encoder
+     */
+    public static JsonBeanEncoder createCompressed(OutputStream out,
+            CompressionDictionary dictionary) {
+        try {
+            return create(defaultFactory(),
+                CompressedStreams.compressing(out, dictionary));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Create a new encoder using a default {@link JsonGenerator}
+     * that writes UTF-8 encoded JSON to the given channel. The
+     * generator buffers its output, so the channel is invoked
+     * with chunks of data.
+     * 
+     * @param out the sink
+     * @return the encoder
+     */
+    public static JsonBeanEncoder create(WritableByteChannel out) {
+        return create(Channels.newOutputStream(out));
+    }
+
+    /**
+     * Create a new encoder using a default {@link JsonGenerator}
+     * that writes UTF-8 encoded JSON to an internally created,
+     * growable byte array. The result can be obtained by invoking
+     * {@link #toBytes()} or {@link #toByteBuffer()} (or 
+     * {@link #toJson()}, though this requires the bytes to be
+     * decoded again).
+     * 
+     * @return the encoder
+     */
+    public static JsonBeanEncoder createForBytes() {
+        return createForBytes(defaultFactory());
+    }
+
+    /**
+     * Create a new encoder using a generator created by the given 
+     * factory (see {@link #create(JsonFactory, OutputStream)}) that
+     * writes to an internally created, growable byte array. The
+     * result can be obtained by invoking {@link #toBytes()} or
+     * {@link #toByteBuffer()}.
+     * 
+     * @param factory the factory
+     * @return the encoder
+     */
+    public static JsonBeanEncoder createForBytes(JsonFactory factory) {
+        ByteArraySink sink = new ByteArraySink();
+        JsonBeanEncoder encoder = create(factory, sink);
+        encoder.byteSink = sink;
+        return encoder;
+    }
+
+    /**
+     * Create a new encoder using a default {@link JsonGenerator}
+     * that writes UTF-8 encoded JSON to a chain of fixed size
+     * segments taken from the given pool. The result can be obtained
+     * by invoking {@link #toByteBuffers()} or written to a channel
+     * with {@link #writeTo(GatheringByteChannel)}. The segments must
+     * be returned to the pool with {@link #releaseBuffers()} (or
+     * {@link #reset()}) when no longer needed.
+     * 
+     * @param pool the pool that provides the segments
+     * @return the encoder
+     */
+    public static JsonBeanEncoder createForBuffers(BufferPool pool) {
+        return createForBuffers(defaultFactory(), pool);
+    }
+
+    /**
+     * Create a new encoder using a generator created by the given 
+     * factory (see {@link #create(JsonFactory, OutputStream)}) that
+     * writes to a chain of fixed size segments taken from the 
+     * given pool (see {@link #createForBuffers(BufferPool)}).
+     * 
+     * @param factory the factory
+     * @param pool the pool that provides the segments
+     * @return the encoder
+     */
+    public static JsonBeanEncoder createForBuffers(JsonFactory factory,
+            BufferPool pool) {
+        ByteBufferChain sink = new ByteBufferChain(pool);
+        JsonBeanEncoder encoder = create(factory, sink);
+        encoder.bufferSink = sink;
+        return encoder;
+    }
+
     /**
      * Create a new encoder using a default {@link JsonGenerator}
      * that writes to an internally created {@link StringWriter}. 
@@ -262,6 +734,147 @@ public final class JsonBeanEncoder extends JsonCodec
         gen = generator;
     }
 
+    /**
+     * Prepares the encoder for writing a new document to its
+     * internally created sink, discarding the previous output.
+     * The configuration (aliases, exclusions and options)
+     * is retained.
+     * 
+     * If the encoder has been created with {@link #createForBytes()},
+     * the internal byte array is reused. If it has been created with
+     * {@link #createForBuffers(BufferPool)}, the segments are returned
+     * to the pool. Else, the output is
+     * written to an internal {@link StringWriter} as if the
+     * encoder had been created with {@link #create()}. 
+     * 
+     * The generator used so far is closed without closing its
+     * target, which returns its buffers for reuse by the new generator.
+     *
+     * @return the encoder for easy chaining
+     */
+    public JsonBeanEncoder reset() {
+        described.clear();
+        clearReferences();
+        releaseGenerator();
+        try {
+            if (bufferSink != null) {
+                bufferSink.release();
+                gen = factory.createGenerator(bufferSink, JsonEncoding.UTF8);
+                return this;
+            }
+            if (byteSink != null) {
+                byteSink.reset();
+                gen = factory.createGenerator(byteSink, JsonEncoding.UTF8);
+                return this;
+            }
+            if (writer == null) {
+                writer = new StringWriter();
+            } else {
+                writer.getBuffer().setLength(0);
+            }
+            gen = defaultFactory().createGenerator(writer);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+        return this;
+    }
+
+    /**
+     * Prepares the encoder for writing a new document to the
+     * given sink (see {@link #create(Writer)}). The configuration
+     * (aliases, exclusions and options) is retained.
+     * 
+     * The generator used so far is closed without closing its
+     * target, which returns its buffers for reuse by the new generator.
+     *
+     * @param out the sink
+     * @return the encoder for easy chaining
+     */
+    public JsonBeanEncoder reset(Writer out) {
+        releaseGenerator();
+        try {
+            return reset(defaultFactory().createGenerator(out));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Prepares the encoder for writing a new document to the
+     * given sink (see {@link #create(OutputStream)}), using the 
+     * factory that the encoder has been created with. The
+     * configuration (aliases, exclusions and options) is retained.
+     * 
+     * The generator used so far is closed without closing its
+     * target, which returns its buffers for reuse by the new generator.
+     *
+     * @param out the sink
+     * @return the encoder for easy chaining
+     */
+    public JsonBeanEncoder reset(OutputStream out) {
+        releaseGenerator();
+        try {
+            return reset(factory.createGenerator(out, JsonEncoding.UTF8));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Prepares the encoder for writing a new document using the
+     * given generator. The configuration (aliases, exclusions and
+     * options) is retained.
+     * 
+     * The generator used so far is closed without closing its
+     * target, which returns its buffers for reuse by the new generator.
+     *
+     * @param generator the generator
+     * @return the encoder for easy chaining
+     */
+    public JsonBeanEncoder reset(JsonGenerator generator) {
+        described.clear();
+        clearReferences();
+        if (generator != gen) {
+            releaseGenerator();
+        }
+        writer = null;
+        byteSink = null;
+        if (bufferSink != null) {
+            bufferSink.release();
+            bufferSink = null;
+        }
+        gen = generator;
+        return this;
+    }
+
+    /**
+     * Closes the current generator without closing its target or 
+     * completing the JSON content. Jackson returns the generator's 
+     * buffers to its buffer recycler on close only, so without this,
+     * every new generator would allocate new buffers.
+     */
+    @SuppressWarnings("PMD.EmptyCatchBlock")
+    private void releaseGenerator() {
+        if (gen.isClosed()) {
+            return;
+        }
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        try {
+            gen.close();
+        } catch (IOException e) {
+            // Pending output could not be written to the previous
+            // sink (e.g. because it has been closed), which has been
+            // abandoned anyway.
+        }
+    }
+
+    private void clearReferences() {
+        if (references != null) {
+            references.clear();
+        }
+    }
+
     @Override
     public void flush() throws IOException {
         gen.flush();
@@ -274,21 +887,132 @@ public final class JsonBeanEncoder extends JsonCodec
 
     /**
      * Returns the text written to the output. Can only be used
-     * if the encoder has been created with {@link #JsonBeanEncoder()}.
+     * if the encoder has been created with {@link #create()}
+     * or {@link #createForBytes()}.
      * 
      * @return the result
      */
     public String toJson() {
-        if (writer == null) {
+        if (writer == null && byteSink == null) {
             throw new IllegalStateException(
                 "JsonBeanEncoder has been created without a known writer.");
         }
+        flushGenerator();
+        if (writer == null) {
+            if (gen.canWriteBinaryNatively()) {
+                throw new IllegalStateException(
+                    "JsonBeanEncoder does not produce textual output.");
+            }
+            return new String(byteSink.toBytes(), StandardCharsets.UTF_8);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Returns a copy of the bytes written to the output. Can only
+     * be used if the encoder has been created with 
+     * {@link #createForBytes()}.
+     *
+     * @return the result
+     */
+    public byte[] toBytes() {
+        return flushedByteSink().toBytes();
+    }
+
+    /**
+     * Returns the bytes written to the output as a {@link ByteBuffer}.
+     * The buffer wraps the encoder's internal byte array, i.e.
+     * no data is copied. It becomes invalid when further output
+     * is written. Can only be used if the encoder has been created
+     * with {@link #createForBytes()}.
+     *
+     * @return the result
+     */
+    public ByteBuffer toByteBuffer() {
+        return flushedByteSink().toByteBuffer();
+    }
+
+    /**
+     * Returns the bytes written to the output as a sequence of
+     * {@link ByteBuffer}s, ready to be passed to
+     * {@link GatheringByteChannel#write(ByteBuffer[])}. The buffers
+     * share their content with the segments taken from the pool,
+     * i.e. they become invalid when {@link #releaseBuffers()} is
+     * called. Can only be used if the encoder has been created
+     * with {@link #createForBuffers(BufferPool)}.
+     *
+     * @return the buffers
+     */
+    public ByteBuffer[] toByteBuffers() {
+        return flushedBufferSink().toByteBuffers();
+    }
+
+    /**
+     * Writes the bytes written to the output to the given channel,
+     * using gathering writes. Can only be used if the encoder has 
+     * been created with {@link #createForBuffers(BufferPool)}. The 
+     * segments are not released.
+     * 
+     * If the channel is in non-blocking mode, a single write is
+     * attempted, which may write only some of the bytes (or none).
+     * In this case, {@link #hasRemaining()} returns `true` and the
+     * method must be invoked again when the channel is ready for
+     * writing. It continues with the bytes not written yet.
+     *
+     * @param channel the channel
+     * @return the number of bytes written
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public long writeTo(GatheringByteChannel channel) throws IOException {
+        return flushedBufferSink().writeTo(channel);
+    }
+
+    /**
+     * Checks if there are bytes that have not been written to a
+     * channel with {@link #writeTo(GatheringByteChannel)} yet. Can
+     * only be used if the encoder has been created with
+     * {@link #createForBuffers(BufferPool)}.
+     *
+     * @return true, if there are bytes left to write
+     */
+    public boolean hasRemaining() {
+        return flushedBufferSink().hasRemaining();
+    }
+
+    /**
+     * Returns the segments used for the output to the pool. 
+     * Any subsequent output is written to new segments. Can only
+     * be used if the encoder has been created with
+     * {@link #createForBuffers(BufferPool)}.
+     */
+    public void releaseBuffers() {
+        flushedBufferSink().release();
+    }
+
+    private ByteBufferChain flushedBufferSink() {
+        if (bufferSink == null) {
+            throw new IllegalStateException(
+                "JsonBeanEncoder has been created without a buffer pool.");
+        }
+        flushGenerator();
+        return bufferSink;
+    }
+
+    private ByteArraySink flushedByteSink() {
+        if (byteSink == null) {
+            throw new IllegalStateException(
+                "JsonBeanEncoder has been created without a byte sink.");
+        }
+        flushGenerator();
+        return byteSink;
+    }
+
+    private void flushGenerator() {
         try {
             gen.flush();
         } catch (IOException e) {
             throw new IllegalStateException(e);
         }
-        return writer.toString();
     }
 
     /**
@@ -303,6 +1027,45 @@ public final class JsonBeanEncoder extends JsonCodec
         return this;
     }
 
+    /**
+     * Write the items provided by the given stream as JSON array.
+     * The items are pulled from the stream and written one at a
+     * time, i.e. the stream's content is never materialized.
+     * The stream is consumed but not closed.
+     *
+     * @param items the items
+     * @return the JSON bean encoder
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public JsonBeanEncoder writeStream(Stream<?> items) throws IOException {
+        writeIterator(items.iterator());
+        return this;
+    }
+
+    /**
+     * Write the items provided by the given iterator as JSON array.
+     * The items are pulled from the iterator and written one at a
+     * time. The generator is flushed periodically, so the items
+     * are passed on to the sink while the iteration proceeds. 
+     *
+     * @param items the items
+     * @return the JSON bean encoder
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public JsonBeanEncoder writeIterator(Iterator<?> items)
+            throws IOException {
+        gen.writeStartArray();
+        int count = 0;
+        while (items.hasNext()) {
+            doWriteObject(items.next(), null);
+            if (++count % ITERATOR_FLUSH_INTERVAL == 0) {
+                gen.flush();
+            }
+        }
+        gen.writeEndArray();
+        return this;
+    }
+
     /**
      * Write the given object as JSON.
      *
@@ -320,109 +1083,456 @@ public final class JsonBeanEncoder extends JsonCodec
         return this;
     }
 
-    @SuppressWarnings({ "PMD.CognitiveComplexity", "PMD.NcssCount",
-        "PMD.NPathComplexity", "PMD.ExcessiveMethodLength",
-        "PMD.DataflowAnomalyAnalysis" })
+    /**
+     * Write the given object as JSON, restricting the properties
+     * written for JavaBeans to the ones selected by the given view.
+     * Getters of properties that are not selected are not invoked.
+     *
+     * @param obj the obj
+     * @param view the view
+     * @return the json bean encoder
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public JsonBeanEncoder writeObject(Object obj, JsonView view)
+            throws IOException {
+        JsonView saved = this.view;
+        this.view = view;
+        try {
+            return writeObject(obj);
+        } finally {
+            this.view = saved;
+        }
+    }
+
     private void doWriteObject(Object obj, Class<?> expectedType)
             throws IOException {
         if (obj == null) {
             gen.writeNull();
             return;
         }
-        if (obj instanceof Boolean) {
-            gen.writeBoolean((Boolean) obj);
-            return;
+        valueWriters.get(obj.getClass()).write(this, obj, expectedType);
+    }
+
+    /**
+     * Writes a value of a specific runtime class. Instances are
+     * resolved once per class by {@link #resolveWriter(Class)}.
+     */
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(JsonBeanEncoder encoder, Object obj, Class<?> expectedType)
+                throws IOException;
+    }
+
+    private static ClassValue<ValueWriter> createWriterTable() {
+        return new ClassValue<>() {
+            @Override
+            protected ValueWriter computeValue(Class<?> type) {
+                return resolveWriter(type);
+            }
+        };
+    }
+
+    /**
+     * Clears the cached writers, see {@link JsonCodec#clearCaches()}.
+     */
+    /* default */ static void clearWriterCache() {
+        valueWriters = createWriterTable();
+    }
+
+    @SuppressWarnings({ "PMD.CognitiveComplexity", "PMD.NcssCount",
+        "PMD.NPathComplexity", "PMD.ExcessiveMethodLength" })
+    private static ValueWriter resolveWriter(Class<?> cls) {
+        if (Boolean.class.equals(cls)) {
+            return (enc, obj, exp) -> enc.gen.writeBoolean((Boolean) obj);
         }
-        if (obj instanceof Byte) {
-            gen.writeNumber(((Byte) obj).intValue());
-            return;
+        if (Number.class.isAssignableFrom(cls)) {
+            return resolveNumberWriter(cls);
         }
-        if (obj instanceof Number) {
-            if (obj instanceof Short) {
-                gen.writeNumber((Short) obj);
-                return;
-            }
-            if (obj instanceof Integer) {
-                gen.writeNumber((Integer) obj);
-                return;
-            }
-            if (obj instanceof Long) {
-                gen.writeNumber((Long) obj);
-                return;
+        PropertyEditor propertyEditor = findPropertyEditor(cls);
+        if (propertyEditor != null) {
+            // Shortcuts for the JDK's editors, which simply use the
+            // string value and the enum constant's name respectively.
+            if (isDefaultEditor(propertyEditor)) {
+                if (String.class.equals(cls)) {
+                    return (enc, obj, exp) -> enc.gen.writeString((String) obj);
+                }
+                if (Enum.class.isAssignableFrom(cls)) {
+                    return (enc, obj, exp) -> enc.gen
+                        .writeString(((Enum<?>) obj).name());
+                }
             }
-            if (obj instanceof BigInteger) {
-                gen.writeNumber((BigInteger) obj);
-                return;
+            return (enc, obj, exp) -> {
+                String text;
+                // Editors are shared (and stateful)
+                synchronized (propertyEditor) {
+                    propertyEditor.setValue(obj);
+                    text = propertyEditor.getAsText();
+                }
+                enc.gen.writeString(text);
+            };
+        }
+        if (Enum.class.isAssignableFrom(cls)) {
+            // Constant with a body, not handled by the editor manager
+            return (enc, obj, exp) -> enc.gen
+                .writeString(((Enum<?>) obj).name());
+        }
+        if (Date.class.isAssignableFrom(cls)) {
+            return (enc, obj, exp) -> {
+                if (enc.useEpochMillis) {
+                    enc.gen.writeNumber(((Date) obj).getTime());
+                    return;
+                }
+                enc.temporalCodec().write(enc.gen, (Date) obj);
+            };
+        }
+        if (TemporalCodec.hasEpochMillis(cls)) {
+            return (enc, obj, exp) -> {
+                if (enc.useEpochMillis) {
+                    enc.gen.writeNumber(TemporalCodec.toEpochMillis(obj));
+                    return;
+                }
+                if (obj instanceof Instant) {
+                    enc.temporalCodec().write(enc.gen, (Instant) obj);
+                    return;
+                }
+                enc.temporalCodec().write(enc.gen, (OffsetDateTime) obj);
+            };
+        }
+        if (LocalDate.class.equals(cls)) {
+            return (enc, obj, exp) -> enc.temporalCodec().write(enc.gen,
+                (LocalDate) obj);
+        }
+        if (LocalDateTime.class.equals(cls)) {
+            return (enc, obj, exp) -> enc.temporalCodec().write(enc.gen,
+                (LocalDateTime) obj);
+        }
+        if (ObjectName.class.isAssignableFrom(cls)) {
+            return (enc, obj, exp) -> enc.gen
+                .writeString(((ObjectName) obj).getCanonicalName());
+        }
+        if (ByteBuffer.class.isAssignableFrom(cls)) {
+            return (enc, obj, exp) -> enc.writeByteBuffer((ByteBuffer) obj);
+        }
+        if (cls.isArray()) {
+            if (cls.getComponentType().isPrimitive()) {
+                return resolvePrimitiveArrayWriter(cls.getComponentType());
             }
-            if (obj instanceof BigDecimal) {
-                gen.writeNumber((BigDecimal) obj);
-                return;
+            return JsonBeanEncoder::writeArrayValue;
+        }
+        if (Collection.class.isAssignableFrom(cls)) {
+            return (enc, obj, exp) -> enc.writeCollection((Collection<?>) obj);
+        }
+        // Iterable, but not a meaningful container
+        if (Path.class.isAssignableFrom(cls)) {
+            return (enc, obj, exp) -> enc.gen.writeString(obj.toString());
+        }
+        if (CompositeData.class.isAssignableFrom(cls)) {
+            return (enc, obj, exp) -> enc
+                .writeCompositeData((CompositeData) obj, exp);
+        }
+        // Must be tested before Map because TabularDataSupport implements Map
+        if (TabularData.class.isAssignableFrom(cls)) {
+            return (enc, obj, exp) -> enc
+                .writeTabularData((TabularData) obj, exp);
+        }
+        if (Map.class.isAssignableFrom(cls)) {
+            return (enc, obj, exp) -> enc.writeMap((Map<?, ?>) obj);
+        }
+        if (BaseStream.class.isAssignableFrom(cls)) {
+            return (enc, obj, exp) -> enc
+                .writeIterator(((BaseStream<?, ?>) obj).iterator());
+        }
+        // Plan is null if the class cannot be written as JavaBean.
+        BeanWritePlan plan = BeanWritePlan.forClass(cls);
+        // JavaBeans that happen to be iterable are still JavaBeans.
+        if (plan == null && Iterable.class.isAssignableFrom(cls)) {
+            return (enc, obj, exp) -> enc
+                .writeIterator(((Iterable<?>) obj).iterator());
+        }
+        if (plan == null && Iterator.class.isAssignableFrom(cls)) {
+            return (enc, obj, exp) -> enc.writeIterator((Iterator<?>) obj);
+        }
+        return (enc, obj, exp) -> enc.writeJavaBean(obj, exp, plan);
+    }
+
+    private static ValueWriter resolveNumberWriter(Class<?> cls) {
+        if (Byte.class.equals(cls)) {
+            return (enc, obj, exp) -> enc.gen
+                .writeNumber(((Byte) obj).intValue());
+        }
+        if (Short.class.equals(cls)) {
+            return (enc, obj, exp) -> enc.gen.writeNumber((Short) obj);
+        }
+        if (Integer.class.equals(cls)) {
+            return (enc, obj, exp) -> enc.gen.writeNumber((Integer) obj);
+        }
+        if (Long.class.equals(cls)) {
+            return (enc, obj, exp) -> enc.gen.writeNumber((Long) obj);
+        }
+        if (BigInteger.class.equals(cls)) {
+            return (enc, obj, exp) -> enc.gen.writeNumber((BigInteger) obj);
+        }
+        if (BigDecimal.class.equals(cls)) {
+            return (enc, obj, exp) -> enc.gen.writeNumber((BigDecimal) obj);
+        }
+        if (Float.class.equals(cls)) {
+            return (enc, obj, exp) -> enc.gen.writeNumber((Float) obj);
+        }
+        return (enc, obj, exp) -> enc.gen
+            .writeNumber(((Number) obj).doubleValue());
+    }
+
+    /**
+     * Arrays of primitive types are written without boxing the
+     * elements and without dispatching on the elements' types.
+     *
+     * @param compType the component type
+     * @return the writer
+     */
+    @SuppressWarnings("PMD.CognitiveComplexity")
+    private static ValueWriter resolvePrimitiveArrayWriter(Class<?> compType) {
+        if (Integer.TYPE.equals(compType)) {
+            return (enc, obj, exp) -> {
+                int[] values = (int[]) obj;
+                enc.gen.writeArray(values, 0, values.length);
+            };
+        }
+        if (Long.TYPE.equals(compType)) {
+            return (enc, obj, exp) -> {
+                long[] values = (long[]) obj;
+                enc.gen.writeArray(values, 0, values.length);
+            };
+        }
+        if (Double.TYPE.equals(compType)) {
+            return (enc, obj, exp) -> {
+                double[] values = (double[]) obj;
+                enc.gen.writeArray(values, 0, values.length);
+            };
+        }
+        if (Float.TYPE.equals(compType)) {
+            return (enc, obj, exp) -> {
+                float[] values = (float[]) obj;
+                enc.gen.writeStartArray(values, values.length);
+                for (float value : values) {
+                    enc.gen.writeNumber(value);
+                }
+                enc.gen.writeEndArray();
+            };
+        }
+        if (Short.TYPE.equals(compType)) {
+            return (enc, obj, exp) -> {
+                short[] values = (short[]) obj;
+                enc.gen.writeStartArray(values, values.length);
+                for (short value : values) {
+                    enc.gen.writeNumber(value);
+                }
+                enc.gen.writeEndArray();
+            };
+        }
+        if (Byte.TYPE.equals(compType)) {
+            return (enc, obj, exp) -> {
+                byte[] values = (byte[]) obj;
+                enc.writeBytes(values, 0, values.length);
+            };
+        }
+        if (Character.TYPE.equals(compType)) {
+            // Characters are written as strings of length 1
+            return (enc, obj, exp) -> {
+                char[] values = (char[]) obj;
+                enc.gen.writeStartArray(values, values.length);
+                for (int i = 0; i < values.length; i++) {
+                    enc.gen.writeString(values, i, 1);
+                }
+                enc.gen.writeEndArray();
+            };
+        }
+        return (enc, obj, exp) -> {
+            boolean[] values = (boolean[]) obj;
+            enc.gen.writeStartArray(values, values.length);
+            for (boolean value : values) {
+                enc.gen.writeBoolean(value);
             }
-            gen.writeNumber((Double) obj);
+            enc.gen.writeEndArray();
+        };
+    }
+
+    private void writeBytes(byte[] values, int offset, int length)
+            throws IOException {
+        if (useBinary) {
+            gen.writeBinary(values, offset, length);
             return;
         }
-        PropertyEditor propertyEditor = findPropertyEditor(obj.getClass());
-        if (propertyEditor != null) {
-            propertyEditor.setValue(obj);
-            gen.writeString(propertyEditor.getAsText());
-            return;
+        gen.writeStartArray(values, length);
+        for (int i = offset; i < offset + length; i++) {
+            gen.writeNumber(values[i]);
         }
-        if (obj instanceof Date) {
-            gen.writeString(DateTimeFormatter.ISO_INSTANT.format(
-                ((Date) obj).toInstant().truncatedTo(ChronoUnit.SECONDS)));
+        gen.writeEndArray();
+    }
+
+    private void writeByteBuffer(ByteBuffer buffer) throws IOException {
+        if (buffer.hasArray()) {
+            writeBytes(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                buffer.remaining());
             return;
         }
-        if (obj instanceof ObjectName) {
-            gen.writeString(((ObjectName) obj).getCanonicalName());
-            return;
+        // Don't modify the position of the original
+        byte[] values = new byte[buffer.remaining()];
+        buffer.duplicate().get(values);
+        writeBytes(values, 0, values.length);
+    }
+
+    /**
+     * Writes the items in parallel if configured and applicable.
+     * The items are split into chunks that are encoded by
+     * separate encoders and the results are combined in order.
+     *
+     * @param items the items
+     * @param compType the expected type of the items
+     * @return true, if the items have been written
+     */
+    @SuppressWarnings({ "PMD.AvoidInstantiatingObjectsInLoops",
+        "PMD.CognitiveComplexity" })
+    private boolean writeParallel(List<?> items, Class<?> compType)
+            throws IOException {
+        if (parallelPool == null || items.size() < parallelThreshold
+            // Numbering of references must follow the output order
+            || references != null
+            // Raw output must be JSON and must not need indenting
+            || gen.canWriteBinaryNatively()
+            || gen.getPrettyPrinter() != null) {
+            return false;
         }
-        if (obj.getClass().isArray()) {
-            gen.writeStartArray();
-            Class<?> compType = null;
-            if (expectedType != null && expectedType.isArray()) {
-                compType = expectedType.getComponentType();
+        int chunkSize = Math.max(MIN_PARALLEL_CHUNK,
+            items.size() / (parallelPool.getParallelism() * 4) + 1);
+        List<ForkJoinTask<JsonBeanEncoder>> chunks = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += chunkSize) {
+            List<?> chunk = items.subList(start,
+                Math.min(start + chunkSize, items.size()));
+            JsonBeanEncoder chunkEncoder = createChunkEncoder();
+            chunks.add(parallelPool.submit(() -> {
+                chunkEncoder.gen.writeStartArray();
+                for (Object item : chunk) {
+                    chunkEncoder.doWriteObject(item, compType);
+                }
+                chunkEncoder.gen.writeEndArray();
+                chunkEncoder.gen.flush();
+                return chunkEncoder;
+            }));
+        }
+        List<JsonBeanEncoder> results = new ArrayList<>();
+        try {
+            for (ForkJoinTask<JsonBeanEncoder> chunk : chunks) {
+                results.add(chunk.get());
             }
-            for (int i = 0; i < Array.getLength(obj); i++) {
-                doWriteObject(Array.get(obj, i), compType);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
             }
-            gen.writeEndArray();
-            return;
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
         }
-        if (obj instanceof Collection) {
-            gen.writeStartArray();
-            for (Object item : (Collection<?>) obj) {
-                doWriteObject(item, null);
+        if (results.stream()
+            .anyMatch(enc -> enc.described.size() != described.size())) {
+            // Type descriptions may only be written once, redo sequentially
+            return false;
+        }
+        gen.writeStartArray();
+        boolean first = true;
+        for (JsonBeanEncoder result : results) {
+            StringBuffer text = result.writer.getBuffer();
+            if (!first) {
+                gen.writeRaw(',');
             }
-            gen.writeEndArray();
-            return;
+            first = false;
+            // Without enclosing brackets
+            gen.writeRaw(text.substring(1, text.length() - 1));
         }
-        if (obj instanceof CompositeData) {
-            writeCompositeData((CompositeData) obj, expectedType);
-            return;
+        gen.writeEndArray();
+        return true;
+    }
+
+    private JsonBeanEncoder createChunkEncoder() {
+        JsonBeanEncoder chunkEncoder = new JsonBeanEncoder();
+        chunkEncoder.gen.overrideStdFeatures(gen.getFeatureMask(), ~0);
+        chunkEncoder.gen.setHighestNonEscapedChar(
+            gen.getHighestEscapedChar());
+        chunkEncoder.gen.setCharacterEscapes(gen.getCharacterEscapes());
+        chunkEncoder.aliases.putAll(aliases);
+        chunkEncoder.described.putAll(described);
+        chunkEncoder.excluded = excluded;
+        chunkEncoder.omitClass = omitClass;
+        chunkEncoder.useBinary = useBinary;
+        chunkEncoder.useEpochMillis = useEpochMillis;
+        chunkEncoder.omitNulls = omitNulls;
+        chunkEncoder.omitDefaults = omitDefaults;
+        chunkEncoder.omitEmpty = omitEmpty;
+        chunkEncoder.positional = positional;
+        chunkEncoder.copyFieldAccess(this);
+        chunkEncoder.view = view;
+        return chunkEncoder;
+    }
+
+    private TemporalCodec temporalCodec() {
+        if (temporalCodec == null) {
+            temporalCodec = new TemporalCodec();
         }
-        // Must be tested before Map because TabularDataSupport implements Map
-        if (obj instanceof TabularData) {
-            writeTabularData((TabularData) obj, expectedType);
+        return temporalCodec;
+    }
+
+    private static boolean isDefaultEditor(PropertyEditor editor) {
+        return editor.getClass().getName()
+            .startsWith("com.sun.beans.editors.");
+    }
+
+    private void writeArrayValue(Object obj, Class<?> expectedType)
+            throws IOException {
+        Object[] items = (Object[]) obj;
+        Class<?> compType = null;
+        if (expectedType != null && expectedType.isArray()) {
+            compType = expectedType.getComponentType();
+        }
+        if (writeParallel(Arrays.asList(items), compType)) {
             return;
         }
-        if (obj instanceof Map) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> map = (Map<String, Object>) obj;
-            gen.writeStartObject();
-            for (Map.Entry<String, Object> e : map.entrySet()) {
-                gen.writeFieldName(e.getKey());
-                doWriteObject(e.getValue(), null);
-            }
-            gen.writeEndObject();
+        gen.writeStartArray();
+        for (Object item : items) {
+            doWriteObject(item, compType);
+        }
+        gen.writeEndArray();
+    }
+
+    private void writeCollection(Collection<?> items) throws IOException {
+        if (items instanceof RandomAccess
+            && writeParallel((List<?>) items, null)) {
             return;
         }
-        BeanInfo beanInfo = findBeanInfo(obj.getClass());
-        if (beanInfo != null && beanInfo.getPropertyDescriptors().length > 0) {
-            writeJavaBean(obj, expectedType, beanInfo);
+        gen.writeStartArray();
+        for (Object item : items) {
+            doWriteObject(item, null);
+        }
+        gen.writeEndArray();
+    }
+
+    private void writeMap(Map<?, ?> map) throws IOException {
+        if (writeReference(map)) {
             return;
         }
-        // Last resort
-        gen.writeString(obj.toString());
+        gen.writeStartObject();
+        for (Map.Entry<?, ?> e : map.entrySet()) {
+            Object value = e.getValue();
+            if (value == null ? omitNulls
+                : omitEmpty && isEmptyContainer(value)) {
+                continue;
+            }
+            gen.writeFieldName((String) e.getKey());
+            doWriteObject(value, null);
+        }
+        gen.writeEndObject();
     }
 
     private void writeCompositeData(CompositeData data, Class<?> expectedType)
@@ -577,37 +1687,296 @@ public final class JsonBeanEncoder extends JsonCodec
         }
     }
 
-    @SuppressWarnings("PMD.EmptyCatchBlock")
+    @SuppressWarnings({ "PMD.EmptyCatchBlock", "PMD.AvoidCatchingThrowable" })
     private void writeJavaBean(Object obj, Class<?> expectedType,
-            BeanInfo beanInfo) throws IOException {
+            BeanWritePlan beanPlan) throws IOException {
+        BeanWritePlan plan = beanPlan;
+        if (usesFields(obj.getClass())) {
+            BeanWritePlan fieldPlan = BeanWritePlan.forFields(obj.getClass());
+            if (fieldPlan != null) {
+                plan = fieldPlan;
+            }
+        }
+        if (plan == null) {
+            // Last resort
+            gen.writeString(obj.toString());
+            return;
+        }
+        if (writeReference(obj)) {
+            return;
+        }
+        if (positional && view == null && excluded == EXCLUDED_DEFAULT
+            && (omitClass || obj.getClass().equals(expectedType))) {
+            writePositional(obj, plan);
+            return;
+        }
         gen.writeStartObject();
         if (!obj.getClass().equals(expectedType) && !omitClass) {
-            gen.writeStringField("class", aliases.computeIfAbsent(
+            gen.writeFieldName(CLASS_KEY);
+            gen.writeString(aliases.computeIfAbsent(
                 obj.getClass(), k -> k.getName()));
         }
-        for (PropertyDescriptor propDesc : beanInfo
-            .getPropertyDescriptors()) {
-            if (propDesc.getValue("transient") != null) {
-                continue;
-            }
-            if (excluded.contains(propDesc.getPropertyType().getName())) {
-                continue;
-            }
-            Method method = propDesc.getReadMethod();
-            if (method == null) {
-                continue;
+        // Default exclusions have already been applied by the plan.
+        boolean checkExcluded = excluded != EXCLUDED_DEFAULT;
+        BeanWritePlan.Property[] properties = plan.properties();
+        Object[] defaults = omitDefaults ? plan.defaults() : null;
+        JsonView.Selection selection = view == null ? null : view.select(plan);
+        int count = selection == null ? properties.length : selection.size();
+        JsonView beanView = view;
+        try {
+            for (int item = 0; item < count; item++) {
+                int i = selection == null ? item : selection.index(item);
+                BeanWritePlan.Property property = properties[i];
+                if (checkExcluded && property.isExcluded(excluded)) {
+                    continue;
+                }
+                Object value;
+                try {
+                    value = property.get(obj);
+                } catch (Throwable e) {
+                    // Bad luck
+                    continue;
+                }
+                if (isOmitted(property, value, defaults, i)) {
+                    continue;
+                }
+                gen.writeFieldName(property.name());
+                if (selection != null) {
+                    view = selection.view(item);
+                }
+                doWriteObject(value, property.type());
             }
+        } finally {
+            view = beanView;
+        }
+        gen.writeEndObject();
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    private void writePositional(Object obj, BeanWritePlan plan)
+            throws IOException {
+        gen.writeStartArray();
+        gen.writeString(plan.fingerprint());
+        for (BeanWritePlan.Property property : plan.properties()) {
+            Object value;
             try {
-                Object value = method.invoke(obj);
-                gen.writeFieldName(propDesc.getName());
-                doWriteObject(value, propDesc.getPropertyType());
-                continue;
-            } catch (IllegalAccessException | IllegalArgumentException
-                    | InvocationTargetException e) {
-                // Bad luck
+                value = property.get(obj);
+            } catch (Throwable e) {
+                // Bad luck, but position must be kept
+                value = null;
             }
+            doWriteObject(value, property.type());
+        }
+        gen.writeEndArray();
+    }
+
+    private boolean isOmitted(BeanWritePlan.Property property, Object value,
+            Object[] defaults, int index) {
+        if (defaults != null && Objects.deepEquals(value, defaults[index])) {
+            return true;
+        }
+        if (value == null) {
+            return omitNulls;
+        }
+        return omitEmpty && property.isEmpty(value);
+    }
+
+    /**
+     * Checks if the value is an empty array, {@link Collection}
+     * or {@link Map}.
+     *
+     * @param value the value
+     * @return true, if empty
+     */
+    /* default */ static boolean isEmptyContainer(Object value) {
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).isEmpty();
+        }
+        if (value instanceof Map) {
+            return ((Map<?, ?>) value).isEmpty();
+        }
+        return value.getClass().isArray() && Array.getLength(value) == 0;
+    }
+
+    /**
+     * Writes a reference to the given object if references are
+     * enabled and the object has been written before. Else, the
+     * object is assigned the next number (if references are enabled).
+     *
+     * @param obj the object
+     * @return true, if a reference has been written
+     */
+    private boolean writeReference(Object obj) throws IOException {
+        if (references == null) {
+            return false;
+        }
+        Integer ref = references.putIfAbsent(obj, references.size());
+        if (ref == null) {
+            return false;
         }
+        gen.writeStartObject();
+        gen.writeFieldName(REF_KEY);
+        gen.writeNumber(ref);
         gen.writeEndObject();
+        return true;
+    }
+
+    /**
+     * A pool of direct {@link ByteBuffer}s of a fixed size, used
+     * as segments by encoders created with 
+     * {@link JsonBeanEncoder#createForBuffers(BufferPool)}. 
+     * 
+     * ```java
+     * JsonBeanEncoder.BufferPool buffers
+     *     = new JsonBeanEncoder.BufferPool(16 * 1024, 256);
+     * ...
+     * JsonBeanEncoder encoder = JsonBeanEncoder.createForBuffers(buffers);
+     * encoder.writeObject(response);
+     * encoder.writeTo(channel);
+     * encoder.releaseBuffers();
+     * ```
+     * 
+     * With a non-blocking channel, `writeTo` is invoked whenever
+     * the channel is ready for writing until 
+     * {@link JsonBeanEncoder#hasRemaining()} returns `false`.
+     * 
+     * The pool is thread-safe.
+     */
+    public static final class BufferPool {
+
+        private final int segmentSize;
+        private final BlockingQueue<ByteBuffer> buffers;
+
+        /**
+         * Creates a new pool.
+         *
+         * @param segmentSize the size of the buffers
+         * @param maxIdle the maximum number of idle buffers kept
+         */
+        public BufferPool(int segmentSize, int maxIdle) {
+            this.segmentSize = segmentSize;
+            buffers = new ArrayBlockingQueue<>(maxIdle);
+        }
+
+        /**
+         * Returns the size of the buffers.
+         *
+         * @return the size
+         */
+        public int segmentSize() {
+            return segmentSize;
+        }
+
+        /**
+         * Returns an idle buffer from the pool or a new buffer if
+         * none is available. The buffer is cleared.
+         *
+         * @return the byte buffer
+         */
+        public ByteBuffer acquire() {
+            ByteBuffer buffer = buffers.poll();
+            if (buffer == null) {
+                return ByteBuffer.allocateDirect(segmentSize);
+            }
+            return buffer;
+        }
+
+        /**
+         * Returns a buffer to the pool. It is kept for reuse
+         * unless the pool is full or the buffer has the wrong size.
+         *
+         * @param buffer the buffer
+         */
+        public void release(ByteBuffer buffer) {
+            if (buffer.capacity() == segmentSize) {
+                buffers.offer(buffer.clear());
+            }
+        }
+
+        /**
+         * Returns the number of idle buffers in the pool.
+         *
+         * @return the number
+         */
+        public int size() {
+            return buffers.size();
+        }
+    }
+
+    /**
+     * A bounded pool of encoders. Encoders are expensive to create
+     * compared to encoding a small object. Senders that encode
+     * messages at a high rate can use a pool to get an encoder
+     * (with the configuration applied by the pool's factory) 
+     * and return it after use.
+     * 
+     * ```java
+     * JsonBeanEncoder.Pool pool = new JsonBeanEncoder.Pool(16,
+     *     () -> JsonBeanEncoder.createForBytes().omitClass());
+     * ...
+     * JsonBeanEncoder encoder = pool.acquire();
+     * try {
+     *     channel.write(encoder.writeObject(msg).toByteBuffer());
+     * } finally {
+     *     pool.release(encoder);
+     * }
+     * ```
+     * 
+     * The pool is thread-safe. Encoders returned by {@link #acquire()}
+     * have been {@link JsonBeanEncoder#reset() reset} and write to
+     * their internal sink. Use one of the other `reset` methods to 
+     * redirect the output.
+     */
+    public static final class Pool {
+
+        private final BlockingQueue<JsonBeanEncoder> encoders;
+        private final Supplier<JsonBeanEncoder> factory;
+
+        /**
+         * Creates a new pool.
+         *
+         * @param maxSize the maximum number of idle encoders kept
+         * @param factory the factory for new encoders
+         */
+        public Pool(int maxSize, Supplier<JsonBeanEncoder> factory) {
+            encoders = new ArrayBlockingQueue<>(maxSize);
+            this.factory = factory;
+        }
+
+        /**
+         * Returns an idle encoder from the pool or a new encoder
+         * if none is available.
+         *
+         * @return the encoder
+         */
+        public JsonBeanEncoder acquire() {
+            JsonBeanEncoder encoder = encoders.poll();
+            if (encoder == null) {
+                return factory.get();
+            }
+            return encoder;
+        }
+
+        /**
+         * Returns an encoder to the pool. The encoder is reset
+         * (thus dropping any reference to an external sink) and
+         * kept for reuse unless the pool is full. The encoder
+         * must not be used by the caller any more.
+         *
+         * @param encoder the encoder
+         */
+        public void release(JsonBeanEncoder encoder) {
+            encoders.offer(encoder.reset());
+        }
+
+        /**
+         * Returns the number of idle encoders in the pool.
+         *
+         * @return the number
+         */
+        public int size() {
+            return encoders.size();
+        }
     }
 
 }
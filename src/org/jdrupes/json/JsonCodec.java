@@ -24,13 +24,17 @@ import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyEditor;
 import java.beans.PropertyEditorManager;
+import java.lang.reflect.Array;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.Date;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.WeakHashMap;
 import javax.management.ObjectName;
 import javax.management.openmbean.OpenType;
@@ -150,6 +154,9 @@ public abstract class JsonCodec {
         simpleToJavaType.put(SimpleType.VOID, Void.class);
     }
 
+    private boolean allFields;
+    private final Set<Class<?>> fieldClasses = new HashSet<>();
+
     /**
      * Returns the primitive type wrapped by the given class.
      *
@@ -253,14 +260,18 @@ public abstract class JsonCodec {
      * expect these methods to provide some caching to speed
      * up requests for the same infomration, but they don't.
      * 
-     * The results are therefore kept in an internal cache.
-     * This cache may, however, become outdated of additional
-     * classes are loaded into the VM dynamically. This method
-     * can be used to clear the caches if this is required. 
+     * The results (and information derived from them) are therefore
+     * kept in internal caches. These caches may, however, become
+     * outdated of additional classes are loaded into the VM
+     * dynamically. This method can be used to clear the caches
+     * if this is required. 
      */
     public static void clearCaches() {
         propertyEditorCache.clear();
         beanInfoCache.clear();
+        BeanWritePlan.clearCache();
+        BeanReadPlan.clearCache();
+        JsonBeanEncoder.clearWriterCache();
     }
 
     /**
@@ -273,6 +284,46 @@ public abstract class JsonCodec {
      */
     public abstract JsonCodec addAlias(Class<?> clazz, String alias);
 
+    /**
+     * Configures the codec to access the fields of the given classes 
+     * directly instead of using their properties. If no classes are
+     * specified, fields are accessed for all classes that would
+     * otherwise be handled as JavaBeans (or written using their 
+     * `toString()` method). Records are always handled using their
+     * components.
+     *
+     * @param classes the classes
+     */
+    /* default */ void enableFields(Class<?>... classes) {
+        if (classes.length == 0) {
+            allFields = true;
+            return;
+        }
+        fieldClasses.addAll(Arrays.asList(classes));
+    }
+
+    /**
+     * Copies the field access configuration from the given codec.
+     *
+     * @param other the other codec
+     */
+    /* default */ void copyFieldAccess(JsonCodec other) {
+        allFields = other.allFields;
+        fieldClasses.addAll(other.fieldClasses);
+    }
+
+    /**
+     * Checks if the fields of the given class are to be accessed
+     * directly (see {@link #enableFields(Class...)}).
+     *
+     * @param cls the class
+     * @return true, if fields are used
+     */
+    /* default */ boolean usesFields(Class<?> cls) {
+        return allFields
+            || !fieldClasses.isEmpty() && fieldClasses.contains(cls);
+    }
+
     /**
      * Returns the wrapper class for the primitive with the given name.
      *
@@ -313,4 +364,19 @@ public abstract class JsonCodec {
         }
     }
 
+    /**
+     * Returns the value that a field of the given type has if it
+     * isn't initialized explicitly, i.e. zero or `false` for 
+     * primitive types and `null` for all other types.
+     *
+     * @param type the type
+     * @return the value
+     */
+    /* default */ static Object typeDefault(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        }
+        return Array.get(Array.newInstance(type, 1), 0);
+    }
+
 }
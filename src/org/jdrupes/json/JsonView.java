@@ -0,0 +1,189 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Selects the properties of JavaBeans to be written by the
+ * {@link JsonBeanEncoder} (see
+ * {@link JsonBeanEncoder#writeObject(Object, JsonView)}).
+ *
+ * A view is defined by paths of property names, separated by
+ * dots. The view `JsonView.of("name", "address.city")` selects
+ * the property "name" and the property "address" of a bean.
+ * The value of "name" is written completely, while only the
+ * property "city" is written for the value of "address" (assuming
+ * that it is a JavaBean). The properties selected for a bean
+ * also apply to the elements of arrays and collections and the
+ * values of maps. Properties that don't exist are ignored.
+ *
+ * Properties that are not selected are never read. The subset
+ * of a bean's properties selected by a view is evaluated once
+ * per bean class and cached by the view. The cached subsets are 
+ * discarded together with the view. Views are immutable and can 
+ * be shared between encoders. They should be created once and kept
+ * (e.g. as constants) to benefit from the caching.
+ */
+public final class JsonView {
+
+    /** Maps selected names to views for their values (or `null`). */
+    private final Map<String, JsonView> selected;
+    /** The selections per bean class, for the plans of the class. */
+    @SuppressWarnings("PMD.FieldNamingConventions")
+    private final ClassValue<Map<BeanWritePlan, Selection>> selections
+        = new ClassValue<>() {
+            @Override
+            protected Map<BeanWritePlan, Selection>
+                    computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+    private JsonView(Map<String, JsonView> selected) {
+        this.selected = selected;
+    }
+
+    /**
+     * Creates a view that selects the given paths.
+     *
+     * @param paths the paths
+     * @return the view
+     */
+    public static JsonView of(String... paths) {
+        @SuppressWarnings("PMD.UseConcurrentHashMap")
+        Map<String, List<String>> byHead = new HashMap<>();
+        for (String path : paths) {
+            int dot = path.indexOf('.');
+            if (dot < 0) {
+                // Selects value completely
+                byHead.put(path, null);
+                continue;
+            }
+            String head = path.substring(0, dot);
+            if (byHead.containsKey(head) && byHead.get(head) == null) {
+                continue;
+            }
+            byHead.computeIfAbsent(head, k -> new ArrayList<>())
+                .add(path.substring(dot + 1));
+        }
+        @SuppressWarnings("PMD.UseConcurrentHashMap")
+        Map<String, JsonView> selected = new HashMap<>();
+        for (Map.Entry<String, List<String>> e : byHead.entrySet()) {
+            selected.put(e.getKey(), e.getValue() == null ? null
+                : of(e.getValue().toArray(new String[0])));
+        }
+        return new JsonView(selected);
+    }
+
+    /**
+     * Returns the properties of the given plan selected by this
+     * view, evaluated once per plan, when first requested.
+     *
+     * @param plan the plan
+     * @return the selection
+     */
+    /* default */ Selection select(BeanWritePlan plan) {
+        Map<BeanWritePlan, Selection> cached
+            = selections.get(plan.beanClass());
+        Selection result = cached.get(plan);
+        if (result == null) {
+            result = cached.computeIfAbsent(plan, this::createSelection);
+        }
+        return result;
+    }
+
+    private Selection createSelection(BeanWritePlan plan) {
+        BeanWritePlan.Property[] properties = plan.properties();
+        int[] indices = new int[properties.length];
+        JsonView[] views = new JsonView[properties.length];
+        int count = 0;
+        for (int i = 0; i < properties.length; i++) {
+            String name = properties[i].name().getValue();
+            if (selected.containsKey(name)) {
+                indices[count] = i;
+                views[count] = selected.get(name);
+                count += 1;
+            }
+        }
+        return new Selection(indices, views, count);
+    }
+
+    @Override
+    public int hashCode() {
+        return selected.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof JsonView
+            && selected.equals(((JsonView) obj).selected);
+    }
+
+    /**
+     * The properties selected from a {@link BeanWritePlan}.
+     */
+    /* default */ static final class Selection {
+        private final int[] indices;
+        private final JsonView[] views;
+        private final int size;
+
+        @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+        private Selection(int[] indices, JsonView[] views, int size) {
+            this.indices = indices;
+            this.views = views;
+            this.size = size;
+        }
+
+        /**
+         * Returns the number of selected properties.
+         *
+         * @return the size
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns the index of the selected property in
+         * {@link BeanWritePlan#properties()}.
+         *
+         * @param item the number of the selected property
+         * @return the index
+         */
+        public int index(int item) {
+            return indices[item];
+        }
+
+        /**
+         * Returns the view to apply to the value of the selected
+         * property or `null` if the value is to be written completely.
+         *
+         * @param item the number of the selected property
+         * @return the view
+         */
+        public JsonView view(int item) {
+            return views[item];
+        }
+    }
+}
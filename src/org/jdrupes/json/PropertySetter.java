@@ -0,0 +1,42 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+/**
+ * Sets the properties of an object created by the decoder. 
+ * Implemented by the sources of information about the properties
+ * that the decoder can use, i.e. {@link BeanReadPlan}, 
+ * {@link BeanCodec} and {@link FieldPlan}. The index of a 
+ * property is its index in the respective {@link PropertyTable}.
+ */
+interface PropertySetter {
+
+    /**
+     * Sets the property with the given index if possible.
+     *
+     * @param bean the object
+     * @param index the index of the property
+     * @param value the value
+     * @return true, if the property has been set, false if it 
+     * cannot be set by this setter
+     * @throws Throwable any exception thrown when setting the value
+     */
+    @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+    boolean setValue(Object bean, int index, Object value) throws Throwable;
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The names and types of the properties that the decoder can
+ * set, in the order in which the encoder writes them.
+ *
+ * The names are pre-serialized, so that the decoder can check
+ * if the next key in the input is the name of the property
+ * following the previously decoded property with 
+ * {@link JsonParser#nextFieldName(SerializableString)}. This
+ * avoids creating a string for the key and looking it up if the
+ * input has been written by the {@link JsonBeanEncoder}. 
+ * Other keys are looked up in a hash map.
+ */
+final class PropertyTable {
+
+    private final SerializableString[] names;
+    private final Class<?>[] types;
+    @SuppressWarnings("PMD.UseConcurrentHashMap")
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    /**
+     * Instantiates a new property table.
+     *
+     * @param names the names in the order used by the encoder
+     * @param types the types
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    /* default */ PropertyTable(String[] names, Class<?>... types) {
+        this.names = new SerializableString[names.length];
+        this.types = types;
+        for (int i = 0; i < names.length; i++) {
+            this.names[i] = new SerializedString(names[i]);
+            indices.put(names[i], i);
+        }
+    }
+
+    /**
+     * Returns the number of properties.
+     *
+     * @return the size
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns the name of the property with the given index.
+     *
+     * @param index the index
+     * @return the name
+     */
+    public String name(int index) {
+        return names[index].getValue();
+    }
+
+    /**
+     * Returns the pre-serialized name of the property with the
+     * given index.
+     *
+     * @param index the index
+     * @return the name
+     */
+    public SerializableString serializedName(int index) {
+        return names[index];
+    }
+
+    /**
+     * Returns the type of the property with the given index.
+     *
+     * @param index the index
+     * @return the type
+     */
+    public Class<?> type(int index) {
+        return types[index];
+    }
+
+    /**
+     * Returns the index of the property with the given name or -1.
+     *
+     * @param name the name
+     * @return the index
+     */
+    public int indexOf(String name) {
+        Integer index = indices.get(name);
+        return index == null ? -1 : index;
+    }
+}
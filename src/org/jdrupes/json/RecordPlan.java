@@ -0,0 +1,248 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * The information required to write and create a record, derived
+ * once from the record's components and cached per class.
+ *
+ * The library is compiled for Java 11, which doesn't know about
+ * records. The methods required to obtain the record's components
+ * are therefore looked up at runtime. If they are not available,
+ * no class is considered to be a record.
+ */
+final class RecordPlan {
+
+    private static final MethodType GETTER_TYPE
+        = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE
+        = MethodType.methodType(Object.class, Object[].class);
+
+    private static final MethodHandle IS_RECORD;
+    private static final MethodHandle GET_COMPONENTS;
+    private static final MethodHandle COMPONENT_NAME;
+    private static final MethodHandle COMPONENT_TYPE;
+    private static final MethodHandle COMPONENT_ACCESSOR;
+
+    static {
+        MethodHandle isRecord = null;
+        MethodHandle getComponents = null;
+        MethodHandle componentName = null;
+        MethodHandle componentType = null;
+        MethodHandle componentAccessor = null;
+        try {
+            // Full lookup required, getRecordComponents is caller sensitive
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Class<?> componentCls
+                = Class.forName("java.lang.reflect.RecordComponent");
+            isRecord = lookup.findVirtual(Class.class, "isRecord",
+                MethodType.methodType(boolean.class));
+            getComponents = lookup.findVirtual(Class.class,
+                "getRecordComponents", MethodType.methodType(
+                    Array.newInstance(componentCls, 0).getClass()))
+                .asType(MethodType.methodType(Object[].class, Class.class));
+            componentName = lookup.findVirtual(componentCls, "getName",
+                MethodType.methodType(String.class))
+                .asType(MethodType.methodType(String.class, Object.class));
+            componentType = lookup.findVirtual(componentCls, "getType",
+                MethodType.methodType(Class.class))
+                .asType(MethodType.methodType(Class.class, Object.class));
+            componentAccessor = lookup.findVirtual(componentCls,
+                "getAccessor", MethodType.methodType(Method.class))
+                .asType(MethodType.methodType(Method.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            // Records not supported by runtime
+            isRecord = null;
+        }
+        IS_RECORD = isRecord;
+        GET_COMPONENTS = getComponents;
+        COMPONENT_NAME = componentName;
+        COMPONENT_TYPE = componentType;
+        COMPONENT_ACCESSOR = componentAccessor;
+    }
+
+    @SuppressWarnings({ "PMD.FieldNamingConventions",
+        "PMD.VariableNamingConventions" })
+    private static final ClassValue<Optional<RecordPlan>> plans
+        = new ClassValue<>() {
+            @Override
+            protected Optional<RecordPlan> computeValue(Class<?> type) {
+                return Optional.ofNullable(createPlan(type));
+            }
+        };
+
+    private final Class<?> recordClass;
+    private final String[] names;
+    private final Class<?>[] types;
+    private final MethodHandle[] accessors;
+    private final MethodHandle constructor;
+    private final Object[] defaults;
+    private final PropertyTable table;
+
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    private RecordPlan(Class<?> recordClass, String[] names,
+            Class<?>[] types, MethodHandle[] accessors,
+            MethodHandle constructor) {
+        this.recordClass = recordClass;
+        this.names = names;
+        this.types = types;
+        this.accessors = accessors;
+        this.constructor = constructor;
+        table = new PropertyTable(names, types);
+        defaults = new Object[types.length];
+        for (int i = 0; i < names.length; i++) {
+            defaults[i] = JsonCodec.typeDefault(types[i]);
+        }
+    }
+
+    /**
+     * Returns the plan for the given class or `null` if the class
+     * isn't a record or its components cannot be accessed.
+     *
+     * @param cls the class
+     * @return the plan
+     */
+    public static RecordPlan forClass(Class<?> cls) {
+        return plans.get(cls).orElse(null);
+    }
+
+    @SuppressWarnings({ "PMD.AvoidCatchingThrowable",
+        "PMD.AvoidAccessibilityAlteration" })
+    private static RecordPlan createPlan(Class<?> cls) {
+        if (IS_RECORD == null) {
+            return null;
+        }
+        try {
+            if (!(boolean) IS_RECORD.invokeExact(cls)) {
+                return null;
+            }
+            Object[] components = (Object[]) GET_COMPONENTS.invokeExact(cls);
+            String[] names = new String[components.length];
+            Class<?>[] types = new Class<?>[components.length];
+            MethodHandle[] accessors = new MethodHandle[components.length];
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            for (int i = 0; i < components.length; i++) {
+                names[i] = (String) COMPONENT_NAME.invokeExact(components[i]);
+                types[i] = (Class<?>) COMPONENT_TYPE.invokeExact(components[i]);
+                Method accessor
+                    = (Method) COMPONENT_ACCESSOR.invokeExact(components[i]);
+                accessor.setAccessible(true);
+                accessors[i] = lookup.unreflect(accessor).asType(GETTER_TYPE);
+            }
+            Constructor<?> canonical = cls.getDeclaredConstructor(types);
+            canonical.setAccessible(true);
+            MethodHandle constructor = lookup.unreflectConstructor(canonical)
+                .asSpreader(Object[].class, types.length)
+                .asType(CONSTRUCTOR_TYPE);
+            return new RecordPlan(cls, names, types, accessors, constructor);
+        } catch (Throwable e) {
+            // Cannot be handled as record (e.g. not accessible).
+            return null;
+        }
+    }
+
+    /**
+     * Returns the record class.
+     *
+     * @return the class
+     */
+    public Class<?> recordClass() {
+        return recordClass;
+    }
+
+    /**
+     * Returns the number of components.
+     *
+     * @return the size
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns the name of the component with the given index.
+     *
+     * @param index the index
+     * @return the name
+     */
+    public String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * Returns the type of the component with the given index.
+     *
+     * @param index the index
+     * @return the type
+     */
+    public Class<?> type(int index) {
+        return types[index];
+    }
+
+    /**
+     * Returns the accessor of the component with the given index,
+     * adapted to type `(Object)Object`.
+     *
+     * @param index the index
+     * @return the method handle
+     */
+    public MethodHandle accessor(int index) {
+        return accessors[index];
+    }
+
+    /**
+     * Returns the {@link PropertyTable} for decoding the components.
+     *
+     * @return the table
+     */
+    public PropertyTable table() {
+        return table;
+    }
+
+    /**
+     * Returns an array with the arguments for the canonical
+     * constructor, initialized with the default values of the
+     * components' types.
+     *
+     * @return the arguments
+     */
+    public Object[] defaultArguments() {
+        return defaults.clone();
+    }
+
+    /**
+     * Creates a new record using the canonical constructor.
+     *
+     * @param args the arguments
+     * @return the record
+     * @throws Throwable any exception thrown by the constructor
+     */
+    @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+    public Object newInstance(Object... args) throws Throwable {
+        return constructor.invokeExact(args);
+    }
+}
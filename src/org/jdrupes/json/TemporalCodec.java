@@ -0,0 +1,531 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+/**
+ * Converts {@link Date}s and some of the `java.time` types from and to
+ * their ISO 8601 representation. The conversion uses a buffer that
+ * is reused and doesn't create intermediate objects. Values that are
+ * not supported by the fast path (e.g. years with more than four
+ * digits) are handled by the {@link DateTimeFormatter}s.
+ *
+ * The formats are the same as produced by
+ * {@link DateTimeFormatter#ISO_INSTANT} (for {@link Date}s truncated
+ * to seconds), {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME},
+ * {@link DateTimeFormatter#ISO_LOCAL_DATE} and
+ * {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}.
+ *
+ * Instances are not thread-safe.
+ */
+@SuppressWarnings({ "PMD.TooManyMethods", "PMD.GodClass",
+    "PMD.AvoidLiteralsInIfCondition" })
+final class TemporalCodec {
+
+    private static final int MAX_LENGTH = 40;
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final long DAYS_PER_CYCLE = 146_097;
+    private static final long DAYS_0000_TO_1970 = DAYS_PER_CYCLE * 5 - 10_957;
+    private static final int MAX_YEAR = 9999;
+    private static final int[] POW10 = { 100_000_000, 10_000_000, 1_000_000,
+        100_000, 10_000, 1000, 100, 10, 1 };
+
+    private final char[] chars = new char[MAX_LENGTH];
+    private int length;
+
+    // Parse results
+    private int year;
+    private int month;
+    private int day;
+    private int hour;
+    private int minute;
+    private int second;
+    private int nano;
+    private int offsetSeconds;
+
+    /**
+     * Checks if the given type is handled by this codec.
+     *
+     * @param type the type
+     * @return true, if supported
+     */
+    public static boolean isSupported(Class<?> type) {
+        return Date.class.equals(type) || Instant.class.equals(type)
+            || OffsetDateTime.class.equals(type)
+            || LocalDate.class.equals(type)
+            || LocalDateTime.class.equals(type);
+    }
+
+    /**
+     * Checks if the given type represents an instant on the time line
+     * and can therefore be represented as milliseconds since the epoch.
+     *
+     * @param type the type
+     * @return true, if supported
+     */
+    public static boolean hasEpochMillis(Class<?> type) {
+        return Date.class.equals(type) || Instant.class.equals(type)
+            || OffsetDateTime.class.equals(type);
+    }
+
+    /**
+     * Writes a date, truncated to seconds.
+     *
+     * @param gen the generator
+     * @param value the value
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void write(JsonGenerator gen, Date value) throws IOException {
+        long epochSecond = Math.floorDiv(value.getTime(), 1000);
+        if (!appendInstant(epochSecond, 0)) {
+            gen.writeString(DateTimeFormatter.ISO_INSTANT.format(
+                value.toInstant().truncatedTo(ChronoUnit.SECONDS)));
+            return;
+        }
+        gen.writeString(chars, 0, length);
+    }
+
+    /**
+     * Writes an instant.
+     *
+     * @param gen the generator
+     * @param value the value
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void write(JsonGenerator gen, Instant value) throws IOException {
+        if (!appendInstant(value.getEpochSecond(), value.getNano())) {
+            gen.writeString(DateTimeFormatter.ISO_INSTANT.format(value));
+            return;
+        }
+        gen.writeString(chars, 0, length);
+    }
+
+    /**
+     * Writes a date with time and offset.
+     *
+     * @param gen the generator
+     * @param value the value
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void write(JsonGenerator gen, OffsetDateTime value)
+            throws IOException {
+        length = 0;
+        if (!appendDate(value.getYear(), value.getMonthValue(),
+            value.getDayOfMonth())) {
+            gen.writeString(
+                DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(value));
+            return;
+        }
+        chars[length++] = 'T';
+        appendTime(value.getHour(), value.getMinute(), value.getSecond(),
+            value.getNano(), false);
+        String offset = value.getOffset().getId();
+        offset.getChars(0, offset.length(), chars, length);
+        length += offset.length();
+        gen.writeString(chars, 0, length);
+    }
+
+    /**
+     * Writes a date.
+     *
+     * @param gen the generator
+     * @param value the value
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void write(JsonGenerator gen, LocalDate value) throws IOException {
+        length = 0;
+        if (!appendDate(value.getYear(), value.getMonthValue(),
+            value.getDayOfMonth())) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE.format(value));
+            return;
+        }
+        gen.writeString(chars, 0, length);
+    }
+
+    /**
+     * Writes a date with time.
+     *
+     * @param gen the generator
+     * @param value the value
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void write(JsonGenerator gen, LocalDateTime value)
+            throws IOException {
+        length = 0;
+        if (!appendDate(value.getYear(), value.getMonthValue(),
+            value.getDayOfMonth())) {
+            gen.writeString(
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+        chars[length++] = 'T';
+        appendTime(value.getHour(), value.getMinute(), value.getSecond(),
+            value.getNano(), false);
+        gen.writeString(chars, 0, length);
+    }
+
+    /**
+     * Returns the milliseconds since the epoch for values of the
+     * types supported by {@link #hasEpochMillis(Class)}.
+     *
+     * @param value the value
+     * @return the milliseconds
+     */
+    public static long toEpochMillis(Object value) {
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        if (value instanceof Instant) {
+            return ((Instant) value).toEpochMilli();
+        }
+        return ((OffsetDateTime) value).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Creates a value of the given type from the milliseconds since
+     * the epoch. {@link OffsetDateTime}s are created with offset UTC.
+     *
+     * @param type the type, see {@link #hasEpochMillis(Class)}
+     * @param millis the milliseconds
+     * @return the value
+     */
+    public static Object fromEpochMillis(Class<?> type, long millis) {
+        if (Date.class.equals(type)) {
+            return new Date(millis);
+        }
+        if (Instant.class.equals(type)) {
+            return Instant.ofEpochMilli(millis);
+        }
+        if (OffsetDateTime.class.equals(type)) {
+            return OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis),
+                ZoneOffset.UTC);
+        }
+        throw new IllegalArgumentException(
+            "Cannot convert number to " + type.getName());
+    }
+
+    /**
+     * Parses the given text as value of the given type.
+     *
+     * @param type the type, see {@link #isSupported(Class)}
+     * @param text the buffer with the text
+     * @param offset the offset of the text in the buffer
+     * @param len the length of the text
+     * @return the value
+     * @throws java.time.format.DateTimeParseException if the
+     * text cannot be parsed
+     */
+    @SuppressWarnings("PMD.CognitiveComplexity")
+    public Object parse(Class<?> type, char[] text, int offset, int len) {
+        if (LocalDate.class.equals(type)) {
+            if (parseDate(text, offset, len) == len) {
+                return LocalDate.of(year, month, day);
+            }
+            return LocalDate.parse(new String(text, offset, len));
+        }
+        if (LocalDateTime.class.equals(type)) {
+            if (parseDateTime(text, offset, len) == len) {
+                return LocalDateTime.of(year, month, day, hour, minute,
+                    second, nano);
+            }
+            return LocalDateTime.parse(new String(text, offset, len));
+        }
+        boolean parsed = false;
+        int pos = parseDateTime(text, offset, len);
+        if (pos > 0) {
+            parsed = parseOffset(text, offset + pos, len - pos);
+        }
+        if (OffsetDateTime.class.equals(type)) {
+            if (parsed) {
+                return OffsetDateTime.of(year, month, day, hour, minute,
+                    second, nano, ZoneOffset.ofTotalSeconds(offsetSeconds));
+            }
+            return OffsetDateTime.parse(new String(text, offset, len));
+        }
+        Instant instant;
+        if (parsed && isValidDate()) {
+            instant = Instant.ofEpochSecond(toEpochDay() * SECONDS_PER_DAY
+                + hour * 3600 + minute * 60 + second - offsetSeconds, nano);
+        } else {
+            instant = Instant.from(DateTimeFormatter.ISO_INSTANT
+                .parse(new String(text, offset, len)));
+        }
+        if (Date.class.equals(type)) {
+            return Date.from(instant);
+        }
+        return instant;
+    }
+
+    private boolean appendInstant(long epochSecond, int nanos) {
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secsOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+        length = 0;
+        if (!appendEpochDay(epochDay)) {
+            return false;
+        }
+        chars[length++] = 'T';
+        appendTime(secsOfDay / 3600, secsOfDay / 60 % 60, secsOfDay % 60,
+            nanos, true);
+        chars[length++] = 'Z';
+        return true;
+    }
+
+    /**
+     * Appends the date for the given day, using the same algorithm
+     * as {@link LocalDate#ofEpochDay(long)}.
+     */
+    @SuppressWarnings("PMD.ShortVariable")
+    private boolean appendEpochDay(long epochDay) {
+        long zeroDay = epochDay + DAYS_0000_TO_1970 - 60;
+        long adjust = 0;
+        if (zeroDay < 0) {
+            long adjustCycles = (zeroDay + 1) / DAYS_PER_CYCLE - 1;
+            adjust = adjustCycles * 400;
+            zeroDay += -adjustCycles * DAYS_PER_CYCLE;
+        }
+        long yearEst = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+        long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100
+            + yearEst / 400);
+        if (doyEst < 0) {
+            yearEst--;
+            doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100
+                + yearEst / 400);
+        }
+        yearEst += adjust;
+        int marchDoy0 = (int) doyEst;
+        int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+        yearEst += marchMonth0 / 10;
+        if (yearEst < 0 || yearEst > MAX_YEAR) {
+            return false;
+        }
+        return appendDate((int) yearEst, (marchMonth0 + 2) % 12 + 1,
+            marchDoy0 - (marchMonth0 * 306 + 5) / 10 + 1);
+    }
+
+    private boolean appendDate(int year, int month, int day) {
+        if (year < 0 || year > MAX_YEAR) {
+            return false;
+        }
+        appendDigits(year / 100);
+        appendDigits(year % 100);
+        chars[length++] = '-';
+        appendDigits(month);
+        chars[length++] = '-';
+        appendDigits(day);
+        return true;
+    }
+
+    /**
+     * Appends the time. Seconds are always appended. Fractions
+     * are appended if not zero, either in groups of three digits
+     * (as {@link DateTimeFormatter#ISO_INSTANT}) or with as many digits
+     * as required (as {@link DateTimeFormatter#ISO_LOCAL_TIME}).
+     */
+    private void appendTime(int hour, int minute, int second, int nanos,
+            boolean groupsOfThree) {
+        appendDigits(hour);
+        chars[length++] = ':';
+        appendDigits(minute);
+        chars[length++] = ':';
+        appendDigits(second);
+        if (nanos == 0) {
+            return;
+        }
+        chars[length++] = '.';
+        int value = nanos;
+        int digits = 9;
+        if (groupsOfThree) {
+            while (digits > 3 && value % 1000 == 0) {
+                value /= 1000;
+                digits -= 3;
+            }
+        } else {
+            while (value % 10 == 0) {
+                value /= 10;
+                digits -= 1;
+            }
+        }
+        for (int i = digits - 1; i >= 0; i--) {
+            chars[length + i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    private void appendDigits(int value) {
+        chars[length++] = (char) ('0' + value / 10);
+        chars[length++] = (char) ('0' + value % 10);
+    }
+
+    /**
+     * Parses "yyyy-MM-dd".
+     *
+     * @return the number of characters consumed or -1
+     */
+    private int parseDate(char[] text, int offset, int len) {
+        if (len < 10 || text[offset + 4] != '-' || text[offset + 7] != '-') {
+            return -1;
+        }
+        int high = digits(text, offset);
+        int low = digits(text, offset + 2);
+        month = digits(text, offset + 5);
+        day = digits(text, offset + 8);
+        if (high < 0 || low < 0 || month < 0 || day < 0) {
+            return -1;
+        }
+        year = high * 100 + low;
+        return 10;
+    }
+
+    /**
+     * Parses "yyyy-MM-ddTHH:mm[:ss[.fffffffff]]".
+     *
+     * @return the number of characters consumed or -1
+     */
+    @SuppressWarnings("PMD.CognitiveComplexity")
+    private int parseDateTime(char[] text, int offset, int len) {
+        if (parseDate(text, offset, len) < 0 || len < 16
+            || text[offset + 10] != 'T' && text[offset + 10] != 't'
+            || text[offset + 13] != ':') {
+            return -1;
+        }
+        hour = digits(text, offset + 11);
+        minute = digits(text, offset + 14);
+        if (hour < 0 || minute < 0) {
+            return -1;
+        }
+        second = 0;
+        nano = 0;
+        int pos = 16;
+        if (pos < len && text[offset + pos] == ':') {
+            if (len < pos + 3) {
+                return -1;
+            }
+            second = digits(text, offset + pos + 1);
+            if (second < 0) {
+                return -1;
+            }
+            pos += 3;
+            if (pos < len && text[offset + pos] == '.') {
+                pos += 1;
+                int digits = 0;
+                while (pos < len && digits < 9
+                    && isDigit(text[offset + pos])) {
+                    nano += (text[offset + pos] - '0') * POW10[digits];
+                    digits += 1;
+                    pos += 1;
+                }
+                if (digits == 0) {
+                    return -1;
+                }
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Parses "Z" or "+HH:mm".
+     *
+     * @return true, if successful
+     */
+    private boolean parseOffset(char[] text, int offset, int len) {
+        if (len == 1 && (text[offset] == 'Z' || text[offset] == 'z')) {
+            offsetSeconds = 0;
+            return true;
+        }
+        if (len != 6 || text[offset] != '+' && text[offset] != '-'
+            || text[offset + 3] != ':') {
+            return false;
+        }
+        int hours = digits(text, offset + 1);
+        int minutes = digits(text, offset + 4);
+        if (hours < 0 || hours > 18 || minutes < 0 || minutes > 59) {
+            return false;
+        }
+        offsetSeconds = hours * 3600 + minutes * 60;
+        if (text[offset] == '-') {
+            offsetSeconds = -offsetSeconds;
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char value) {
+        return value >= '0' && value <= '9';
+    }
+
+    private static int digits(char[] text, int offset) {
+        if (!isDigit(text[offset]) || !isDigit(text[offset + 1])) {
+            return -1;
+        }
+        return (text[offset] - '0') * 10 + text[offset + 1] - '0';
+    }
+
+    private boolean isValidDate() {
+        if (month < 1 || month > 12 || day < 1 || hour > 23 || minute > 59
+            || second > 59) {
+            return false;
+        }
+        int maxDay;
+        switch (month) {
+        case 2:
+            maxDay = isLeapYear() ? 29 : 28;
+            break;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            maxDay = 30;
+            break;
+        default:
+            maxDay = 31;
+            break;
+        }
+        return day <= maxDay;
+    }
+
+    private boolean isLeapYear() {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * Same algorithm as {@link LocalDate#toEpochDay()}. Only
+     * non-negative years can be parsed.
+     */
+    private long toEpochDay() {
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100
+            + (year + 399) / 400 + (367 * month - 362) / 12 + day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear()) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+}
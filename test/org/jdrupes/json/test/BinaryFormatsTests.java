@@ -0,0 +1,190 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public 
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import org.jdrupes.json.JsonBeanDecoder;
+import org.jdrupes.json.JsonBeanEncoder;
+import org.jdrupes.json.JsonDecodeException;
+import org.jdrupes.json.JsonObject;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.Test;
+
+public class BinaryFormatsTests {
+
+    public static class Record {
+        private String name;
+        private long count;
+        private double ratio;
+        private Instant created;
+        private byte[] data;
+        private List<String> tags;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public double getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(double ratio) {
+            this.ratio = ratio;
+        }
+
+        public Instant getCreated() {
+            return created;
+        }
+
+        public void setCreated(Instant created) {
+            this.created = created;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public void setData(byte[] data) {
+            this.data = data;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+    }
+
+    private static Record createRecord(int index) {
+        Record record = new Record();
+        record.setName("Record " + index);
+        record.setCount(index * 1000L);
+        record.setRatio(index / 4.0);
+        record.setCreated(Instant.ofEpochSecond(1_600_000_000L + index));
+        record.setData(new byte[] { 1, (byte) index, -1 });
+        record.setTags(List.of("alpha", "beta"));
+        return record;
+    }
+
+    private void checkRoundTrip(JsonFactory factory)
+            throws IOException, JsonDecodeException {
+        Record record = createRecord(7);
+        byte[] encoded = JsonBeanEncoder.createForBytes(factory).useBinary()
+            .writeObject(record).toBytes();
+        Record result = JsonBeanDecoder.create(factory, encoded)
+            .readObject(Record.class);
+        assertEquals(record.getName(), result.getName());
+        assertEquals(record.getCount(), result.getCount());
+        assertEquals(record.getRatio(), result.getRatio(), 0);
+        assertEquals(record.getCreated(), result.getCreated());
+        assertArrayEquals(record.getData(), result.getData());
+        assertEquals(record.getTags(), result.getTags());
+
+        // Same data model as JSON
+        JsonObject generic = JsonBeanDecoder.create(factory,
+            new ByteArrayInputStream(JsonBeanEncoder.createForBytes(factory)
+                .writeObject(record).toBytes()))
+            .readObject();
+        assertEquals(JsonBeanDecoder.create(JsonBeanEncoder.create()
+            .writeObject(record).toJson()).readObject(), generic);
+    }
+
+    @Test
+    public void testSmile() throws IOException, JsonDecodeException {
+        checkRoundTrip(new SmileFactory());
+    }
+
+    @Test
+    public void testCbor() throws IOException, JsonDecodeException {
+        checkRoundTrip(new CBORFactory());
+    }
+
+    @Test
+    public void testSharedValues() throws IOException, JsonDecodeException {
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            records.add(createRecord(i));
+        }
+        SmileFactory factory = new SmileFactory();
+        int plain = JsonBeanEncoder.createForBytes(factory)
+            .writeObject(records).toBytes().length;
+        factory.enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES);
+        byte[] shared = JsonBeanEncoder.createForBytes(factory)
+            .writeObject(records).toBytes();
+        assertTrue(shared.length < plain);
+        assertTrue(shared.length < JsonBeanEncoder.createForBytes()
+            .writeObject(records).toBytes().length);
+        Record[] result = JsonBeanDecoder.create(factory, shared)
+            .readArray(Record[].class);
+        assertEquals(100, result.length);
+        assertEquals("Record 99", result[99].getName());
+        assertEquals(List.of("alpha", "beta"), result[99].getTags());
+    }
+
+    @Test
+    public void testOpenTypes() throws IOException, JsonDecodeException,
+            OpenDataException {
+        CompositeType type = new CompositeType("Sample", "Sample",
+            new String[] { "name", "value" }, new String[] { "name", "value" },
+            new OpenType<?>[] { SimpleType.STRING, SimpleType.INTEGER });
+        CompositeData data = new CompositeDataSupport(type,
+            new String[] { "name", "value" }, new Object[] { "answer", 42 });
+        SmileFactory factory = new SmileFactory();
+        byte[] encoded = JsonBeanEncoder.createForBytes(factory)
+            .writeObject(data).toBytes();
+        CompositeData result = JsonBeanDecoder.create(factory, encoded)
+            .readObject(CompositeData.class);
+        assertEquals(data, result);
+    }
+
+    @Test
+    public void testNotTextual() throws IOException {
+        JsonBeanEncoder encoder = JsonBeanEncoder
+            .createForBytes(new SmileFactory()).writeObject("text");
+        assertThrows(IllegalStateException.class, () -> encoder.toJson());
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.jdrupes.json.BeanCodec;
+import org.jdrupes.json.JsonBeanDecoder;
+import org.jdrupes.json.JsonBeanEncoder;
+import org.jdrupes.json.JsonDecodeException;
+import org.jdrupes.json.processor.CodecProcessor;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CodecTests {
+
+    private static final String PERSON = String.join("\n",
+        "package sample;",
+        "import java.beans.ConstructorProperties;",
+        "import java.util.List;",
+        "import org.jdrupes.json.GenerateCodec;",
+        "@GenerateCodec",
+        "public class Person {",
+        "    private String name;",
+        "    private int age;",
+        "    private boolean active;",
+        "    private List<String> tags;",
+        "    private Point location;",
+        "    private Person friend;",
+        "    public String getName() { return name; }",
+        "    public void setName(String name) { this.name = name; }",
+        "    public int getAge() { return age; }",
+        "    public void setAge(int age) { this.age = age; }",
+        "    public boolean isActive() { return active; }",
+        "    public void setActive(boolean active) { this.active = active; }",
+        "    public List<String> getTags() { return tags; }",
+        "    public void setTags(List<String> tags) { this.tags = tags; }",
+        "    public Point getLocation() { return location; }",
+        "    public void setLocation(Point location) { this.location = location; }",
+        "    public Person getFriend() { return friend; }",
+        "    public void setFriend(Person friend) { this.friend = friend; }",
+        "    @java.beans.Transient",
+        "    public String getSecret() { return \"secret\"; }",
+        "    public int getNameLength() { return name == null ? 0 : name.length(); }",
+        "    @GenerateCodec",
+        "    public static class Point {",
+        "        private final int x;",
+        "        private final int y;",
+        "        @ConstructorProperties({ \"x\", \"y\" })",
+        "        public Point(int x, int y) { this.x = x; this.y = y; }",
+        "        public int getX() { return x; }",
+        "        public int getY() { return y; }",
+        "    }",
+        "}");
+
+    private static final String JSON = "{\"active\":true,\"age\":42,"
+        + "\"friend\":{\"active\":false,\"age\":7,\"name\":\"Bob\"},"
+        + "\"location\":{\"x\":3,\"y\":4},\"name\":\"Alice\","
+        + "\"tags\":[\"a\",\"b\"]}";
+
+    private static String classPath(Class<?>... classes)
+            throws URISyntaxException {
+        StringBuilder result = new StringBuilder();
+        for (Class<?> cls : classes) {
+            if (result.length() > 0) {
+                result.append(File.pathSeparator);
+            }
+            result.append(Path.of(cls.getProtectionDomain().getCodeSource()
+                .getLocation().toURI()));
+        }
+        return result.toString();
+    }
+
+    private ClassLoader compile(Path dir, boolean generate)
+            throws IOException, URISyntaxException {
+        Path src = dir.resolve("src/sample/Person.java");
+        Files.createDirectories(src.getParent());
+        Files.writeString(src, PERSON);
+        Path out = dir.resolve("classes");
+        Files.createDirectories(out);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager files
+            = compiler.getStandardFileManager(null, null, null)) {
+            List<String> options = new ArrayList<>(List.of("-d",
+                out.toString(), "-classpath",
+                classPath(JsonBeanEncoder.class, JsonFactory.class)));
+            if (!generate) {
+                options.add("-proc:none");
+            }
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files,
+                null, options, null, files.getJavaFileObjects(src));
+            if (generate) {
+                task.setProcessors(List.of(new CodecProcessor()));
+            }
+            assertTrue(task.call());
+        }
+        return new URLClassLoader(new URL[] { out.toUri().toURL() },
+            getClass().getClassLoader());
+    }
+
+    private String roundTrip(ClassLoader loader)
+            throws ReflectiveOperationException, JsonDecodeException,
+            IOException {
+        Class<?> personClass = loader.loadClass("sample.Person");
+        Object person = JsonBeanDecoder.create(JSON).readObject(personClass);
+        return JsonBeanEncoder.create().writeObject(person).toJson();
+    }
+
+    @Test
+    public void testGenerated(@TempDir Path dir) throws Exception {
+        ClassLoader loader = compile(dir.resolve("generated"), true);
+        assertNotNull(loader.loadClass("sample.Person_JsonCodec"));
+        assertNotNull(loader.loadClass("sample.Person_Point_JsonCodec"));
+        String withCodec = roundTrip(loader);
+
+        loader = compile(dir.resolve("reflective"), false);
+        try {
+            loader.loadClass("sample.Person_JsonCodec");
+            fail();
+        } catch (ClassNotFoundException e) {
+            // Expected
+        }
+        String reflective = roundTrip(loader);
+
+        assertEquals(reflective, withCodec);
+        assertTrue(withCodec.contains("\"nameLength\":5"));
+        assertFalse(withCodec.contains("secret"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testInvalidAccess(@TempDir Path dir) throws Exception {
+        ClassLoader loader = compile(dir, true);
+        BeanCodec<Object> codec = (BeanCodec<Object>) loader
+            .loadClass("sample.Person_Point_JsonCodec")
+            .getConstructor().newInstance();
+        Object point = codec.newInstance(0, 3, 4);
+        assertEquals(4, codec.get(point, 1));
+        assertThrows(IllegalStateException.class, codec::newInstance);
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> codec.newInstance(1, 3, 4));
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> codec.get(point, 2));
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> codec.set(point, 0, 5));
+    }
+}
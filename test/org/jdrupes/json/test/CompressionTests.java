@@ -0,0 +1,163 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public 
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+import org.jdrupes.json.Compression;
+import org.jdrupes.json.JsonBeanDecoder;
+import org.jdrupes.json.JsonBeanEncoder;
+import org.jdrupes.json.JsonDecodeException;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.Test;
+
+public class CompressionTests {
+
+    private static final List<String> ITEMS = IntStream.range(0, 10_000)
+        .mapToObj(i -> "Item " + i).collect(Collectors.toList());
+
+    private static String plainJson() throws IOException {
+        return JsonBeanEncoder.create().writeObject(ITEMS).toJson();
+    }
+
+    private static byte[] compress(Compression compression)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonBeanEncoder encoder
+            = JsonBeanEncoder.createCompressed(out, compression)) {
+            encoder.writeObject(ITEMS);
+        }
+        return out.toByteArray();
+    }
+
+    private static String readAll(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testGzip() throws IOException, JsonDecodeException {
+        byte[] compressed = compress(Compression.GZIP);
+        assertTrue(compressed.length < plainJson().length() / 4);
+        assertEquals(plainJson(), readAll(
+            new GZIPInputStream(new ByteArrayInputStream(compressed))));
+
+        // Detected automatically
+        assertEquals(ITEMS, List.of(JsonBeanDecoder.create(compressed)
+            .readArray(String[].class)));
+        assertEquals(ITEMS, List.of(JsonBeanDecoder
+            .create(new ByteArrayInputStream(compressed))
+            .readArray(String[].class)));
+        assertEquals(ITEMS, List.of(JsonBeanDecoder
+            .createCompressed(new ByteArrayInputStream(compressed),
+                Compression.GZIP)
+            .readArray(String[].class)));
+    }
+
+    @Test
+    public void testDeflate() throws IOException, JsonDecodeException {
+        byte[] compressed = compress(Compression.DEFLATE);
+        assertEquals(plainJson(), readAll(
+            new InflaterInputStream(new ByteArrayInputStream(compressed))));
+        assertEquals(ITEMS, List.of(JsonBeanDecoder
+            .createCompressed(new ByteArrayInputStream(compressed),
+                Compression.DEFLATE)
+            .readArray(String[].class)));
+    }
+
+    @Test
+    public void testForeignGzip() throws IOException, JsonDecodeException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(plainJson().getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(ITEMS, List.of(JsonBeanDecoder
+            .create(new ByteArrayInputStream(out.toByteArray()))
+            .readArray(String[].class)));
+    }
+
+    @Test
+    public void testUncompressed() throws IOException, JsonDecodeException {
+        assertEquals(ITEMS, List.of(JsonBeanDecoder
+            .create(new ByteArrayInputStream(
+                plainJson().getBytes(StandardCharsets.UTF_8)))
+            .readArray(String[].class)));
+        assertEquals("x", JsonBeanDecoder.create(new ByteArrayInputStream(
+            "\"x\"".getBytes(StandardCharsets.UTF_8)))
+            .readObject(String.class));
+    }
+
+    @Test
+    public void testCorrupted() throws IOException, JsonDecodeException {
+        byte[] compressed = compress(Compression.GZIP);
+        // Modify CRC
+        compressed[compressed.length - 5] ^= 1;
+        JsonBeanDecoder decoder = JsonBeanDecoder.create(compressed);
+        decoder.readArray(String[].class);
+        // Trailer is checked when reaching the end of the input
+        assertThrows(JsonDecodeException.class,
+            () -> decoder.readObject(Object.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int pooledInflaters() throws ReflectiveOperationException {
+        Field field = Class.forName("org.jdrupes.json.CompressedStreams")
+            .getDeclaredField("inflaters");
+        field.setAccessible(true);
+        // Pool for raw data, used for gzip
+        return ((List<Collection<?>>) field.get(null)).get(1).size();
+    }
+
+    @Test
+    public void testReleasedOnClose() throws Exception {
+        byte[] compressed = compress(Compression.GZIP);
+        int pooled = pooledInflaters();
+        try (JsonBeanDecoder decoder = JsonBeanDecoder
+            .createCompressed(new ByteArrayInputStream(compressed),
+                Compression.GZIP)) {
+            assertEquals(ITEMS, List.of(decoder.readArray(String[].class)));
+        }
+        assertEquals(Math.max(pooled, 1), pooledInflaters());
+    }
+
+    @Test
+    public void testCorruptTrailerOnClose() throws Exception {
+        byte[] compressed = compress(Compression.GZIP);
+        // Modify CRC
+        compressed[compressed.length - 5] ^= 1;
+        int pooled = pooledInflaters();
+        JsonBeanDecoder decoder = JsonBeanDecoder.create(compressed);
+        assertEquals(ITEMS, List.of(decoder.readArray(String[].class)));
+        assertThrows(ZipException.class, decoder::close);
+        assertEquals(Math.max(pooled, 1), pooledInflaters());
+    }
+}
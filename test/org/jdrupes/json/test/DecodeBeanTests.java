@@ -19,6 +19,7 @@
 package org.jdrupes.json.test;
 
 import java.beans.ConstructorProperties;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -200,6 +201,81 @@ public class DecodeBeanTests {
         assertTrue(result.allConstCalled);
     }
 
+    public static class Vector {
+
+        private final double posX;
+        private final double posY;
+
+        @ConstructorProperties({ "x", "y" })
+        public Vector(double posX, double posY) {
+            this.posX = posX;
+            this.posY = posY;
+        }
+
+        @ConstructorProperties({ "length", "angle" })
+        public Vector(long length, long angle) {
+            this(length * Math.cos(Math.toRadians(angle)),
+                length * Math.sin(Math.toRadians(angle)));
+        }
+
+        public double getX() {
+            return posX;
+        }
+
+        public double getY() {
+            return posY;
+        }
+    }
+
+    @Test
+    public void testSameArity() throws JsonDecodeException {
+        Vector result = JsonBeanDecoder.create("{ \"x\": 1, \"y\": 2 }")
+            .readObject(Vector.class);
+        assertEquals(1, result.getX(), 0.001);
+        assertEquals(2, result.getY(), 0.001);
+        result = JsonBeanDecoder.create("{ \"length\": 2, \"angle\": 90 }")
+            .readObject(Vector.class);
+        assertEquals(0, result.getX(), 0.001);
+        assertEquals(2, result.getY(), 0.001);
+    }
+
+    public static class Recorder {
+
+        private final List<String> calls = new ArrayList<>();
+
+        public void setFirst(String value) {
+            calls.add("first=" + value);
+        }
+
+        public void setSecond(String value) {
+            calls.add("second=" + value);
+        }
+
+        public void setThird(String value) {
+            calls.add("third=" + value);
+        }
+    }
+
+    @Test
+    public void testSetInOrder() throws JsonDecodeException {
+        // Values are set while parsing, i.e. in the order of the input.
+        Recorder result = JsonBeanDecoder.create(
+            "{\"third\":\"c\",\"first\":\"a\",\"second\":\"b\"}")
+            .readObject(Recorder.class);
+        assertEquals(List.of("third=c", "first=a", "second=b"), result.calls);
+    }
+
+    @Test
+    public void testKeyOrder() throws JsonDecodeException {
+        // Keys missing, unknown or not in the order used by the encoder
+        Recorder result = JsonBeanDecoder.create(
+            "{\"first\":\"a\",\"other\":{\"second\":\"x\"},"
+                + "\"third\":\"c\",\"second\":\"b\",\"first\":\"d\"}")
+            .skipUnknown().readObject(Recorder.class);
+        assertEquals(List.of("first=a", "third=c", "second=b", "first=d"),
+            result.calls);
+    }
+
     @Test
     public void readTestBean() throws JsonDecodeException {
         String json = "{\"dateProperty\":\"1983-12-17T20:07:12Z\","
@@ -0,0 +1,153 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public 
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipException;
+import org.jdrupes.json.Compression;
+import org.jdrupes.json.CompressionDictionary;
+import org.jdrupes.json.JsonBeanDecoder;
+import org.jdrupes.json.JsonBeanEncoder;
+import org.jdrupes.json.JsonDecodeException;
+import org.jdrupes.json.JsonRpc;
+import org.jdrupes.json.JsonRpc.DefaultJsonRpc;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.Test;
+
+public class DictionaryTests {
+
+    private static final String[] METHODS
+        = { "getStatus", "setConfiguration", "listItems", "subscribe" };
+
+    private static JsonRpc createMessage(int index) {
+        JsonRpc rpc = JsonRpc.create()
+            .setMethod(METHODS[index % METHODS.length])
+            .addParam("component-" + index % 7).addParam(index)
+            .addParam(index % 3 == 0);
+        rpc.setField("id", index);
+        return rpc;
+    }
+
+    private static byte[] encode(JsonRpc rpc) throws IOException {
+        return JsonBeanEncoder.createForBytes().writeObject(rpc).toBytes();
+    }
+
+    private static List<byte[]> samples() throws IOException {
+        List<byte[]> samples = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            samples.add(encode(createMessage(i)));
+        }
+        return samples;
+    }
+
+    private static byte[] compress(JsonRpc rpc,
+            CompressionDictionary dictionary) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonBeanEncoder encoder
+            = JsonBeanEncoder.createCompressed(out, dictionary)) {
+            encoder.writeObject(rpc);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testTrained() throws IOException, JsonDecodeException {
+        CompressionDictionary dictionary
+            = CompressionDictionary.train(3, samples());
+        assertTrue(dictionary.content().length > 0);
+        assertTrue(dictionary.content().length <= 1024);
+
+        JsonRpc message = createMessage(1000);
+        int plainSize = encode(message).length;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonBeanEncoder encoder
+            = JsonBeanEncoder.createCompressed(out, Compression.DEFLATE)) {
+            encoder.writeObject(message);
+        }
+        int deflatedSize = out.size();
+        byte[] compressed = compress(message, dictionary);
+        assertEquals(3, compressed[0]);
+        assertTrue(compressed.length < deflatedSize / 2);
+        assertTrue(compressed.length < plainSize / 2);
+
+        DefaultJsonRpc result = JsonBeanDecoder
+            .createCompressed(new ByteArrayInputStream(compressed),
+                new CompressionDictionary(1, new byte[0]), dictionary)
+            .readObject(DefaultJsonRpc.class);
+        assertEquals("getStatus", result.method());
+        assertEquals(1000L, result.id().get());
+        assertEquals("component-6", result.params().get(0));
+    }
+
+    @Test
+    public void testLargeId() throws IOException, JsonDecodeException {
+        CompressionDictionary dictionary = new CompressionDictionary(
+            100_000, encode(createMessage(0)));
+        byte[] compressed = compress(createMessage(4), dictionary);
+        JsonRpc result = JsonBeanDecoder
+            .createCompressed(new ByteArrayInputStream(compressed),
+                dictionary)
+            .readObject(DefaultJsonRpc.class);
+        assertEquals("getStatus", result.method());
+    }
+
+    @Test
+    public void testUnknownId() throws IOException {
+        byte[] compressed = compress(createMessage(0),
+            new CompressionDictionary(2, new byte[] { 1, 2, 3 }));
+        assertThrows(IllegalArgumentException.class,
+            () -> JsonBeanDecoder.createCompressed(
+                new ByteArrayInputStream(compressed),
+                new CompressionDictionary(1, new byte[] { 1, 2, 3 })));
+    }
+
+    @Test
+    public void testCorrupted() throws IOException, JsonDecodeException {
+        CompressionDictionary dictionary = new CompressionDictionary(
+            5, encode(createMessage(0)));
+        byte[] compressed = compress(createMessage(4), dictionary);
+        try (JsonBeanDecoder decoder = JsonBeanDecoder.createCompressed(
+            new ByteArrayInputStream(compressed), dictionary)) {
+            assertEquals("getStatus",
+                decoder.readObject(DefaultJsonRpc.class).method());
+        }
+
+        // Modify CRC
+        byte[] modified = compressed.clone();
+        modified[modified.length - 5] ^= 1;
+        JsonBeanDecoder decoder = JsonBeanDecoder.createCompressed(
+            new ByteArrayInputStream(modified), dictionary);
+        decoder.readObject(DefaultJsonRpc.class);
+        assertThrows(ZipException.class, decoder::close);
+
+        // Truncated
+        JsonBeanDecoder truncated = JsonBeanDecoder.createCompressed(
+            new ByteArrayInputStream(
+                Arrays.copyOf(compressed, compressed.length - 2)),
+            dictionary);
+        truncated.readObject(DefaultJsonRpc.class);
+        assertThrows(EOFException.class, truncated::close);
+    }
+}
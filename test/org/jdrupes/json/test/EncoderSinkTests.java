@@ -0,0 +1,236 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public 
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import org.jdrupes.json.JsonBeanEncoder;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.Test;
+
+public class EncoderSinkTests {
+
+    private static final String EXPECTED = "[\"Gr\u00fc\u00dfe\",\"\u20ac\",42]";
+
+    private static Object[] data() {
+        return new Object[] { "Gr\u00fc\u00dfe", "\u20ac", 42 };
+    }
+
+    @Test
+    public void testBytes() throws IOException {
+        JsonBeanEncoder encoder = JsonBeanEncoder.createForBytes();
+        encoder.writeObject(data());
+        byte[] bytes = encoder.toBytes();
+        assertArrayEquals(EXPECTED.getBytes(StandardCharsets.UTF_8), bytes);
+        assertEquals(EXPECTED, encoder.toJson());
+        ByteBuffer buffer = encoder.toByteBuffer();
+        assertEquals(bytes.length, buffer.remaining());
+        assertEquals(ByteBuffer.wrap(bytes), buffer);
+    }
+
+    @Test
+    public void testStream() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonBeanEncoder encoder = JsonBeanEncoder.create(out)) {
+            encoder.writeObject(data());
+        }
+        assertEquals(EXPECTED, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testChannel() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonBeanEncoder encoder
+            = JsonBeanEncoder.create(Channels.newChannel(out))) {
+            encoder.writeObject(data());
+        }
+        assertTrue(Arrays.equals(EXPECTED.getBytes(StandardCharsets.UTF_8),
+            out.toByteArray()));
+    }
+
+    @Test
+    public void testWrongSink() {
+        JsonBeanEncoder encoder = JsonBeanEncoder.create();
+        assertThrows(IllegalStateException.class, () -> encoder.toBytes());
+    }
+
+    @Test
+    public void testReset() throws IOException {
+        JsonBeanEncoder encoder = JsonBeanEncoder.create().omitClass();
+        assertEquals("[1]", encoder.writeObject(new int[] { 1 }).toJson());
+        assertEquals("[2]",
+            encoder.reset().writeObject(new int[] { 2 }).toJson());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.reset(out).writeObject(data()).flush();
+        assertEquals(EXPECTED, out.toString(StandardCharsets.UTF_8));
+        assertThrows(IllegalStateException.class, () -> encoder.toJson());
+
+        encoder.reset();
+        assertEquals("[3]", encoder.writeObject(new int[] { 3 }).toJson());
+
+        JsonBeanEncoder byteEncoder = JsonBeanEncoder.createForBytes();
+        byteEncoder.writeObject(data());
+        assertEquals("[]",
+            byteEncoder.reset().writeObject(new int[0]).toJson());
+    }
+
+    /**
+     * Counts the buffers that have to be allocated because no 
+     * recycled buffer is available.
+     */
+    private static class CountingRecycler extends BufferRecycler {
+        private int allocated;
+
+        @Override
+        protected byte[] balloc(int size) {
+            allocated += 1;
+            return super.balloc(size);
+        }
+    }
+
+    @Test
+    public void testBuffersReused() throws IOException {
+        CountingRecycler recycler = new CountingRecycler();
+        @SuppressWarnings("serial")
+        JsonFactory factory = new JsonFactory() {
+            @Override
+            public BufferRecycler _getBufferRecycler() {
+                return recycler;
+            }
+        };
+        JsonBeanEncoder encoder = JsonBeanEncoder.createForBytes(factory);
+        encoder.writeObject(data()).flush();
+        int allocated = recycler.allocated;
+        for (int i = 0; i < 3; i++) {
+            encoder.reset().writeObject(data()).flush();
+            encoder.reset(new ByteArrayOutputStream()).writeObject(data())
+                .flush();
+        }
+        assertEquals(allocated, recycler.allocated);
+    }
+
+    @Test
+    public void testPool() throws IOException {
+        JsonBeanEncoder.Pool pool = new JsonBeanEncoder.Pool(1,
+            () -> JsonBeanEncoder.createForBytes());
+        JsonBeanEncoder first = pool.acquire();
+        JsonBeanEncoder second = pool.acquire();
+        assertNotSame(first, second);
+        first.writeObject(data());
+        pool.release(first);
+        pool.release(second);
+        assertEquals(1, pool.size());
+
+        JsonBeanEncoder reused = pool.acquire();
+        assertSame(first, reused);
+        assertEquals(0, pool.size());
+        assertEquals(EXPECTED, reused.writeObject(data()).toJson());
+    }
+
+    @Test
+    public void testBuffers() throws IOException {
+        JsonBeanEncoder.BufferPool pool
+            = new JsonBeanEncoder.BufferPool(16, 100);
+        JsonBeanEncoder encoder = JsonBeanEncoder.createForBuffers(pool);
+        Object[] data = new Object[10];
+        Arrays.fill(data, "Gr\u00fc\u00dfe");
+        encoder.writeObject(data);
+        String expected = JsonBeanEncoder.create().writeObject(data).toJson();
+        ByteBuffer[] buffers = encoder.toByteBuffers();
+        assertTrue(buffers.length > 1);
+        assertTrue(buffers[0].isDirect());
+        ByteBuffer all = ByteBuffer.allocate(1024);
+        for (ByteBuffer buffer : buffers) {
+            all.put(buffer);
+        }
+        all.flip();
+        assertEquals(expected, StandardCharsets.UTF_8.decode(all).toString());
+
+        Path file = Files.createTempFile("test", ".json");
+        try (FileChannel channel
+            = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            assertEquals(expected.getBytes(StandardCharsets.UTF_8).length,
+                encoder.writeTo(channel));
+        }
+        assertEquals(expected, Files.readString(file));
+        Files.delete(file);
+
+        encoder.releaseBuffers();
+        assertEquals(buffers.length, pool.size());
+        encoder.writeObject(data).flush();
+        assertEquals(0, pool.size());
+        encoder.reset();
+        assertEquals(buffers.length, pool.size());
+    }
+
+    @Test
+    public void testNonBlockingChannel() throws IOException {
+        JsonBeanEncoder.BufferPool pool
+            = new JsonBeanEncoder.BufferPool(1024, 100);
+        JsonBeanEncoder encoder = JsonBeanEncoder.createForBuffers(pool);
+        String[] data = new String[20000];
+        Arrays.fill(data, "Gr\u00fc\u00dfe");
+        byte[] expected = JsonBeanEncoder.create().writeObject(data).toJson()
+            .getBytes(StandardCharsets.UTF_8);
+        encoder.writeObject(data);
+
+        Pipe pipe = Pipe.open();
+        pipe.sink().configureBlocking(false);
+        pipe.source().configureBlocking(false);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        ByteBuffer chunk = ByteBuffer.allocate(4096);
+        long written = 0;
+        int partial = 0;
+        while (encoder.hasRemaining()) {
+            written += encoder.writeTo(pipe.sink());
+            if (encoder.hasRemaining()) {
+                partial += 1;
+            }
+            // Drain some of the data, as a reader would do
+            chunk.clear();
+            int count = pipe.source().read(chunk);
+            received.write(chunk.array(), 0, Math.max(count, 0));
+        }
+        chunk.clear();
+        int count;
+        while ((count = pipe.source().read(chunk)) > 0) {
+            received.write(chunk.array(), 0, count);
+            chunk.clear();
+        }
+        assertTrue(partial > 0);
+        assertEquals(expected.length, written);
+        assertArrayEquals(expected, received.toByteArray());
+        assertEquals(0, encoder.writeTo(pipe.sink()));
+        pipe.sink().close();
+        pipe.source().close();
+        encoder.releaseBuffers();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import java.beans.ConstructorProperties;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import org.jdrupes.json.JsonBeanDecoder;
+import org.jdrupes.json.JsonBeanEncoder;
+import org.jdrupes.json.JsonDecodeException;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.Test;
+
+public class FieldsTests {
+
+    public static class Base {
+        protected long id;
+    }
+
+    public static class Dto extends Base {
+        public static int instances;
+        public String name;
+        private int count;
+        private List<String> tags;
+        private transient String cached = "cached";
+        private Dto next;
+    }
+
+    public static class Immutable {
+        private final String name;
+        private final int size;
+
+        @ConstructorProperties({ "name", "size" })
+        public Immutable(String name, int size) {
+            this.name = name;
+            this.size = size;
+        }
+    }
+
+    public static class Holder {
+        private UUID uuid;
+        private Dto dto;
+    }
+
+    private static Dto sample() {
+        Dto dto = new Dto();
+        dto.id = 42;
+        dto.name = "test";
+        dto.count = 3;
+        dto.tags = List.of("a", "b");
+        return dto;
+    }
+
+    @Test
+    public void testEncode() throws IOException {
+        String json = JsonBeanEncoder.create().useFields(Dto.class)
+            .writeObject(sample()).toJson();
+        assertEquals("{\"count\":3,\"id\":42,\"name\":\"test\","
+            + "\"next\":null,\"tags\":[\"a\",\"b\"]}", json);
+
+        // Not configured, no properties
+        json = JsonBeanEncoder.create().useFields(Immutable.class)
+            .writeObject(sample()).toJson();
+        assertTrue(
+            json.startsWith("\"org.jdrupes.json.test.FieldsTests$Dto"));
+    }
+
+    @Test
+    public void testDecode() throws IOException, JsonDecodeException {
+        Dto dto = sample();
+        dto.next = sample();
+        dto.next.name = "next";
+        String json = JsonBeanEncoder.create().useFields()
+            .writeObject(dto).toJson();
+        Dto result = JsonBeanDecoder.create(json).useFields(Dto.class)
+            .readObject(Dto.class);
+        assertEquals(42, result.id);
+        assertEquals("test", result.name);
+        assertEquals(3, result.count);
+        assertEquals(List.of("a", "b"), result.tags);
+        assertEquals("cached", result.cached);
+        assertEquals("next", result.next.name);
+        assertNull(result.next.next);
+    }
+
+    @Test
+    public void testImmutable() throws IOException, JsonDecodeException {
+        String json = JsonBeanEncoder.create().useFields()
+            .writeObject(new Immutable("x", 7)).toJson();
+        assertEquals("{\"name\":\"x\",\"size\":7}", json);
+        Immutable result = JsonBeanDecoder.create(json).useFields()
+            .readObject(Immutable.class);
+        assertEquals("x", result.name);
+        assertEquals(7, result.size);
+    }
+
+    @Test
+    public void testInaccessible() throws IOException {
+        // Fields of UUID cannot be accessed, written as JavaBean.
+        Holder holder = new Holder();
+        holder.uuid = new UUID(1, 2);
+        String json = JsonBeanEncoder.create().useFields()
+            .writeObject(holder).toJson();
+        assertEquals("{\"dto\":null,\"uuid\":{\"leastSignificantBits\":2,"
+            + "\"mostSignificantBits\":1}}", json);
+    }
+
+    @Test
+    public void testUnknown() throws IOException {
+        try {
+            JsonBeanDecoder.create("{\"name\":\"a\",\"other\":1}")
+                .useFields().readObject(Dto.class);
+            fail();
+        } catch (JsonDecodeException e) {
+            // Expected
+        }
+    }
+}
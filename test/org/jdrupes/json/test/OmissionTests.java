@@ -0,0 +1,166 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public 
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import java.beans.ConstructorProperties;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jdrupes.json.JsonBeanDecoder;
+import org.jdrupes.json.JsonBeanEncoder;
+import org.jdrupes.json.JsonDecodeException;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.Test;
+
+public class OmissionTests {
+
+    public static class Sparse {
+        private String name;
+        private int count;
+        private int limit = 10;
+        private boolean active;
+        private List<String> tags = new ArrayList<>();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public void setLimit(int limit) {
+            this.limit = limit;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+    }
+
+    public static class Immutable {
+        private final String name;
+        private final long size;
+
+        @ConstructorProperties({ "name", "size" })
+        public Immutable(String name, long size) {
+            this.name = name;
+            this.size = size;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+
+    @Test
+    public void testNulls() throws IOException {
+        String json = JsonBeanEncoder.create().omitNulls()
+            .writeObject(new Sparse()).toJson();
+        assertEquals("{\"active\":false,\"count\":0,\"limit\":10,"
+            + "\"tags\":[]}", json);
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        String json = JsonBeanEncoder.create().omitNulls().omitEmpty()
+            .writeObject(new Sparse()).toJson();
+        assertEquals("{\"active\":false,\"count\":0,\"limit\":10}", json);
+    }
+
+    @Test
+    public void testDefaults() throws IOException, JsonDecodeException {
+        String json = JsonBeanEncoder.create().omitDefaults()
+            .writeObject(new Sparse()).toJson();
+        assertEquals("{}", json);
+
+        Sparse sparse = new Sparse();
+        sparse.setLimit(0);
+        sparse.setCount(3);
+        sparse.getTags().add("a");
+        json = JsonBeanEncoder.create().omitDefaults()
+            .writeObject(sparse).toJson();
+        assertEquals("{\"count\":3,\"limit\":0,\"tags\":[\"a\"]}", json);
+        Sparse result = JsonBeanDecoder.create(json).readObject(Sparse.class);
+        assertNull(result.getName());
+        assertEquals(3, result.getCount());
+        assertEquals(0, result.getLimit());
+        assertFalse(result.isActive());
+        assertEquals(List.of("a"), result.getTags());
+    }
+
+    @Test
+    public void testConstructor() throws IOException, JsonDecodeException {
+        String json = JsonBeanEncoder.create().omitDefaults()
+            .writeObject(new Immutable(null, 0)).toJson();
+        assertEquals("{}", json);
+        Immutable result
+            = JsonBeanDecoder.create(json).readObject(Immutable.class);
+        assertNull(result.getName());
+        assertEquals(0, result.getSize());
+
+        json = JsonBeanEncoder.create().omitDefaults()
+            .writeObject(new Immutable("x", 0)).toJson();
+        assertEquals("{\"name\":\"x\"}", json);
+        result = JsonBeanDecoder.create(json).readObject(Immutable.class);
+        assertEquals("x", result.getName());
+        assertEquals(0, result.getSize());
+    }
+
+    @Test
+    public void testMap() throws IOException {
+        Map<String, Object> map = new HashMap<>();
+        map.put("a", null);
+        map.put("b", List.of());
+        map.put("c", 0);
+        String json = JsonBeanEncoder.create().omitNulls().omitEmpty()
+            .writeObject(map).toJson();
+        assertEquals("{\"c\":0}", json);
+    }
+}
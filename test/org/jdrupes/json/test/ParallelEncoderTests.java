@@ -0,0 +1,128 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public 
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import org.jdrupes.json.JsonBeanEncoder;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.Test;
+
+public class ParallelEncoderTests {
+
+    private static final Set<Thread> USED_THREADS
+        = ConcurrentHashMap.newKeySet();
+
+    public static class Item {
+        private int id;
+        private String name;
+
+        public Item(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            USED_THREADS.add(Thread.currentThread());
+            return name;
+        }
+    }
+
+    public static class SpecialItem extends Item {
+        public SpecialItem(int id, String name) {
+            super(id, name);
+        }
+    }
+
+    private static List<Object> items(int count) {
+        List<Object> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (i % 7 == 0) {
+                items.add(new SpecialItem(i, "Sp\u00e9cial \"" + i + "\""));
+            } else if (i % 11 == 0) {
+                items.add(null);
+            } else {
+                items.add(new Item(i, "Item " + i));
+            }
+        }
+        return items;
+    }
+
+    @Test
+    public void testList() throws IOException {
+        List<Object> items = items(25_000);
+        String sequential = JsonBeanEncoder.create()
+            .addAlias(SpecialItem.class, "Special").writeObject(items)
+            .toJson();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        USED_THREADS.clear();
+        String parallel = JsonBeanEncoder.create().parallel(pool, 5000)
+            .addAlias(SpecialItem.class, "Special").writeObject(items)
+            .toJson();
+        assertEquals(sequential, parallel);
+        assertTrue(USED_THREADS.size() > 1);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testArrayToBytes() throws IOException {
+        Item[] items = items(20_000).toArray(new Item[0]);
+        ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+        try (JsonBeanEncoder encoder = JsonBeanEncoder.create(sequential)) {
+            encoder.writeObject(items);
+        }
+        ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+        try (JsonBeanEncoder encoder
+            = JsonBeanEncoder.create(parallel).parallel(1000)) {
+            encoder.writeObject(items);
+        }
+        assertArrayEquals(sequential.toByteArray(), parallel.toByteArray());
+    }
+
+    @Test
+    public void testOpenTypes() throws IOException, OpenDataException {
+        CompositeType type = new CompositeType("Point", "A point",
+            new String[] { "x", "y" }, new String[] { "x", "y" },
+            new OpenType<?>[] { SimpleType.INTEGER, SimpleType.INTEGER });
+        List<Object> items = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            items.add(i % 1000 == 999 ? new CompositeDataSupport(type,
+                new String[] { "x", "y" }, new Object[] { i, -i }) : i);
+        }
+        String sequential = JsonBeanEncoder.create().writeObject(items)
+            .toJson();
+        String parallel = JsonBeanEncoder.create().parallel(100)
+            .writeObject(items).toJson();
+        assertEquals(sequential, parallel);
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.List;
+import org.jdrupes.json.JsonBeanDecoder;
+import org.jdrupes.json.JsonBeanEncoder;
+import org.jdrupes.json.JsonDecodeException;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.Test;
+
+public class PositionalTests {
+
+    public static class Point {
+        private int x;
+        private int y;
+
+        public Point() {
+        }
+
+        public Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public void setX(int x) {
+            this.x = x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public void setY(int y) {
+            this.y = y;
+        }
+    }
+
+    public static class Shape {
+        private String name;
+        private Point origin;
+        private Point[] points;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Point getOrigin() {
+            return origin;
+        }
+
+        public void setOrigin(Point origin) {
+            this.origin = origin;
+        }
+
+        public Point[] getPoints() {
+            return points;
+        }
+
+        public void setPoints(Point[] points) {
+            this.points = points;
+        }
+    }
+
+    public static class Event {
+        private String name;
+        private Date date;
+        private int count;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Date getDate() {
+            return date;
+        }
+
+        public void setDate(Date date) {
+            this.date = date;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
+    private static Shape shape() {
+        Shape shape = new Shape();
+        shape.setName("triangle");
+        shape.setOrigin(new Point(1, 2));
+        shape.setPoints(new Point[] { new Point(0, 0), new Point(3, 0),
+            new Point(0, 4) });
+        return shape;
+    }
+
+    private static String fingerprint(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder result = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                result.append(String.format("%02x", digest[i]));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException, JsonDecodeException {
+        Shape shape = shape();
+        String json = JsonBeanEncoder.create().usePositional()
+            .writeObject(shape).toJson();
+        assertFalse(json.contains("origin"));
+        assertFalse(json.contains("\"x\""));
+        Shape result = JsonBeanDecoder.create(json).readObject(Shape.class);
+        assertEquals("triangle", result.getName());
+        assertEquals(2, result.getOrigin().getY());
+        assertEquals(3, result.getPoints().length);
+        assertEquals(4, result.getPoints()[2].getY());
+    }
+
+    @Test
+    public void testUntyped() throws IOException, JsonDecodeException {
+        // Type not known when decoding, written with keys.
+        String json = JsonBeanEncoder.create().usePositional()
+            .writeObject(List.of(new Point(1, 2))).toJson();
+        assertTrue(json.contains("\"x\":1"));
+    }
+
+    @Test
+    public void testMismatch() throws IOException {
+        String json = JsonBeanEncoder.create().usePositional()
+            .writeObject(new Point(1, 2)).toJson();
+        try {
+            JsonBeanDecoder.create(json).readObject(Shape.class);
+            fail();
+        } catch (JsonDecodeException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testFingerprint() throws IOException {
+        String json = JsonBeanEncoder.create().usePositional()
+            .writeObject(new Point(1, 2)).toJson();
+        assertEquals("[\"" + fingerprint("x:int,y:int") + "\",1,2]", json);
+    }
+
+    @Test
+    public void testTypeChanged() throws IOException {
+        // Written by a previous version with properties of type long
+        String json = "[\"" + fingerprint("x:long,y:long") + "\",1,2]";
+        try {
+            JsonBeanDecoder.create(json).readObject(Point.class);
+            fail();
+        } catch (JsonDecodeException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testAdapt() throws IOException, JsonDecodeException {
+        // Written by a previous version with properties "x", "z", "y"
+        String json = "[\"0000000000000000\",1,2,3]";
+        try {
+            JsonBeanDecoder.create(json).readObject(Point.class);
+            fail();
+        } catch (JsonDecodeException e) {
+            // Expected
+        }
+        String[] names = { "x", "z", "y" };
+        Class<?>[] types = { int.class, Object.class, int.class };
+        String old = fingerprint("x:int,z:java.lang.Object,y:int");
+        json = "[\"" + old + "\",1,{\"a\":2},3]";
+        try {
+            JsonBeanDecoder.create(json).addSchema(Point.class, names, types)
+                .readObject(Point.class);
+            fail();
+        } catch (JsonDecodeException e) {
+            // Expected
+        }
+        Point result = JsonBeanDecoder.create(json).skipUnknown()
+            .addSchema(Point.class, names, types).readObject(Point.class);
+        assertEquals(1, result.getX());
+        assertEquals(3, result.getY());
+    }
+
+    @Test
+    public void testExcluded() throws IOException, JsonDecodeException {
+        Event event = new Event();
+        event.setName("n");
+        event.setDate(new Date());
+        event.setCount(3);
+        String json = JsonBeanEncoder.create().usePositional().omitClass()
+            .addExcluded("java.util.Date").writeObject(event).toJson();
+        assertFalse(json.contains("date"));
+        Event result = JsonBeanDecoder.create(json).readObject(Event.class);
+        assertEquals("n", result.getName());
+        assertNull(result.getDate());
+        assertEquals(3, result.getCount());
+    }
+
+    @Test
+    public void testReferences() throws IOException, JsonDecodeException {
+        Shape shape = new Shape();
+        Point point = new Point(1, 1);
+        shape.setOrigin(point);
+        shape.setPoints(new Point[] { point, point });
+        String json = JsonBeanEncoder.create().usePositional().useReferences()
+            .writeObject(shape).toJson();
+        Shape result = JsonBeanDecoder.create(json).useReferences()
+            .readObject(Shape.class);
+        assertSame(result.getOrigin(), result.getPoints()[0]);
+        assertSame(result.getOrigin(), result.getPoints()[1]);
+    }
+}
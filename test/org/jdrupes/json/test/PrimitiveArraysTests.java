@@ -0,0 +1,208 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public 
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.jdrupes.json.JsonBeanDecoder;
+import org.jdrupes.json.JsonBeanEncoder;
+import org.jdrupes.json.JsonDecodeException;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.Test;
+
+public class PrimitiveArraysTests {
+
+    public static class Series {
+        private long[] times;
+        private double[] values;
+
+        public long[] getTimes() {
+            return times;
+        }
+
+        public void setTimes(long[] times) {
+            this.times = times;
+        }
+
+        public double[] getValues() {
+            return values;
+        }
+
+        public void setValues(double[] values) {
+            this.values = values;
+        }
+    }
+
+    @Test
+    public void testBean() throws IOException, JsonDecodeException {
+        Series series = new Series();
+        series.setTimes(new long[] { 1L, 2L, 10_000_000_000L });
+        series.setValues(new double[] { 0.5, -1.25, 3 });
+
+        String json = JsonBeanEncoder.create().writeObject(series).toJson();
+        assertEquals("{\"times\":[1,2,10000000000],"
+            + "\"values\":[0.5,-1.25,3.0]}", json);
+
+        Series result = JsonBeanDecoder.create(json).readObject(Series.class);
+        assertArrayEquals(series.getTimes(), result.getTimes());
+        assertArrayEquals(series.getValues(), result.getValues(), 0);
+    }
+
+    @Test
+    public void testIntegral() throws IOException, JsonDecodeException {
+        int[] ints = { 1, -2, Integer.MAX_VALUE };
+        String json = JsonBeanEncoder.create().writeObject(ints).toJson();
+        assertEquals("[1,-2,2147483647]", json);
+        assertArrayEquals(ints,
+            JsonBeanDecoder.create(json).readArray(int[].class));
+
+        short[] shorts = { 1, -2, Short.MAX_VALUE };
+        json = JsonBeanEncoder.create().writeObject(shorts).toJson();
+        assertEquals("[1,-2,32767]", json);
+        assertArrayEquals(shorts,
+            JsonBeanDecoder.create(json).readArray(short[].class));
+    }
+
+    @Test
+    public void testFloat() throws IOException, JsonDecodeException {
+        float[] floats = { 1.5f, -2f, 0.25f };
+        String json = JsonBeanEncoder.create().writeObject(floats).toJson();
+        assertEquals("[1.5,-2.0,0.25]", json);
+        assertArrayEquals(floats,
+            JsonBeanDecoder.create(json).readArray(float[].class), 0);
+    }
+
+    @Test
+    public void testNonFinite() throws IOException, JsonDecodeException {
+        double[] doubles = { Double.NaN, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, 1.5 };
+        String json = JsonBeanEncoder.create().writeObject(doubles).toJson();
+        assertArrayEquals(doubles,
+            JsonBeanDecoder.create(json).readArray(double[].class), 0);
+
+        float[] floats = { Float.NaN, Float.POSITIVE_INFINITY, -2f };
+        json = JsonBeanEncoder.create().writeObject(floats).toJson();
+        assertArrayEquals(floats,
+            JsonBeanDecoder.create(json).readArray(float[].class), 0);
+
+        assertThrows(JsonDecodeException.class, () -> JsonBeanDecoder
+            .create("[1.0,\"x\"]").readArray(double[].class));
+    }
+
+    @Test
+    public void testLarge() throws IOException, JsonDecodeException {
+        long[] times = new long[1000];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = i * 1_000_000_007L;
+        }
+        String json = JsonBeanEncoder.create().writeObject(times).toJson();
+        assertArrayEquals(times,
+            JsonBeanDecoder.create(json).readArray(long[].class));
+        assertEquals(0,
+            JsonBeanDecoder.create("[]").readArray(long[].class).length);
+    }
+
+    @Test
+    public void testNotNumber() throws IOException {
+        try {
+            JsonBeanDecoder.create("[1,null,3]").readArray(int[].class);
+            fail();
+        } catch (JsonDecodeException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testCharsAndBooleans() throws IOException, JsonDecodeException {
+        char[] chars = { 'a', '"', 'z' };
+        String json = JsonBeanEncoder.create().writeObject(chars).toJson();
+        assertEquals("[\"a\",\"\\\"\",\"z\"]", json);
+        assertArrayEquals(chars,
+            JsonBeanDecoder.create(json).readArray(char[].class));
+
+        boolean[] flags = { true, false, true };
+        json = JsonBeanEncoder.create().writeObject(flags).toJson();
+        assertEquals("[true,false,true]", json);
+        boolean[] result
+            = JsonBeanDecoder.create(json).readArray(boolean[].class);
+        assertEquals(flags.length, result.length);
+        for (int i = 0; i < flags.length; i++) {
+            assertEquals(flags[i], result[i]);
+        }
+    }
+
+    @Test
+    public void testNested() throws IOException, JsonDecodeException {
+        double[][] matrix = { { 1, 2 }, {}, { 3 } };
+        String json = JsonBeanEncoder.create().writeObject(matrix).toJson();
+        assertEquals("[[1.0,2.0],[],[3.0]]", json);
+        double[][] result
+            = JsonBeanDecoder.create(json).readArray(double[][].class);
+        assertEquals(3, result.length);
+        assertArrayEquals(matrix[0], result[0], 0);
+        assertArrayEquals(matrix[1], result[1], 0);
+        assertArrayEquals(matrix[2], result[2], 0);
+    }
+
+    public static class Blob {
+        private byte[] data;
+        private ByteBuffer buffer;
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public void setData(byte[] data) {
+            this.data = data;
+        }
+
+        public ByteBuffer getBuffer() {
+            return buffer;
+        }
+
+        public void setBuffer(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    @Test
+    public void testBytes() throws IOException, JsonDecodeException {
+        Blob blob = new Blob();
+        blob.setData(new byte[] { 1, -1, 127 });
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4);
+        buffer.put(new byte[] { 0, 2, 4, 6 }).flip().position(1);
+        blob.setBuffer(buffer);
+
+        // Default
+        String json = JsonBeanEncoder.create().writeObject(blob).toJson();
+        assertEquals("{\"buffer\":[2,4,6],\"data\":[1,-1,127]}", json);
+        Blob result = JsonBeanDecoder.create(json).readObject(Blob.class);
+        assertArrayEquals(blob.getData(), result.getData());
+        assertEquals(buffer, result.getBuffer());
+
+        // Binary
+        json = JsonBeanEncoder.create().useBinary().writeObject(blob)
+            .toJson();
+        assertEquals("{\"buffer\":\"AgQG\",\"data\":\"Af9/\"}", json);
+        assertEquals(1, buffer.position());
+        result = JsonBeanDecoder.create(json).readObject(Blob.class);
+        assertArrayEquals(blob.getData(), result.getData());
+        assertEquals(buffer, result.getBuffer());
+    }
+}
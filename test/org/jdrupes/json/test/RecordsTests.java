@@ -0,0 +1,123 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.jdrupes.json.JsonBeanDecoder;
+import org.jdrupes.json.JsonBeanEncoder;
+import org.jdrupes.json.JsonDecodeException;
+import static org.junit.Assert.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Records require Java 16 and are therefore compiled when
+ * running the tests.
+ */
+public class RecordsTests {
+
+    private static final String LINE = String.join("\n",
+        "package sample;",
+        "import java.util.List;",
+        "public record Line(String name, Point from, Point to,",
+        "        List<String> tags) {",
+        "    public record Point(int x, int y) {",
+        "    }",
+        "    public double length() {",
+        "        return Math.hypot(to.x() - from.x(), to.y() - from.y());",
+        "    }",
+        "}");
+
+    private static Class<?> lineCls;
+    private static Class<?> pointCls;
+
+    @BeforeAll
+    public static void compile(@TempDir Path dir) throws Exception {
+        assumeTrue(Runtime.version().feature() >= 16);
+        ClassLoader loader = TestCompiler.compile(dir, "sample.Line", LINE);
+        lineCls = loader.loadClass("sample.Line");
+        pointCls = loader.loadClass("sample.Line$Point");
+    }
+
+    private static Object point(int x, int y)
+            throws ReflectiveOperationException {
+        return pointCls.getConstructor(int.class, int.class).newInstance(x, y);
+    }
+
+    private static Object line(String name, Object from, Object to,
+            List<String> tags) throws ReflectiveOperationException {
+        return lineCls.getConstructor(String.class, pointCls, pointCls,
+            List.class).newInstance(name, from, to, tags);
+    }
+
+    @Test
+    public void testEncode() throws Exception {
+        Object line = line("diagonal", point(0, 0), point(3, 4),
+            List.of("a"));
+        String json = JsonBeanEncoder.create().writeObject(line).toJson();
+        assertEquals("{\"name\":\"diagonal\","
+            + "\"from\":{\"x\":0,\"y\":0},\"to\":{\"x\":3,\"y\":4},"
+            + "\"tags\":[\"a\"]}", json);
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Object line = line("diagonal", point(0, 0), point(3, 4),
+            List.of("a", "b"));
+        String json = JsonBeanEncoder.create().writeObject(line).toJson();
+        Object result = JsonBeanDecoder.create(json).readObject(lineCls);
+        assertEquals(line, result);
+    }
+
+    @Test
+    public void testMissing() throws Exception {
+        Object result = JsonBeanDecoder.create("{\"to\":{\"y\":4}}")
+            .readObject(lineCls);
+        assertEquals(line(null, null, point(0, 4), null), result);
+    }
+
+    @Test
+    public void testUnknown() throws Exception {
+        String json = "{\"x\":1,\"z\":{\"a\":2},\"y\":3}";
+        try {
+            JsonBeanDecoder.create(json).readObject(pointCls);
+            fail();
+        } catch (JsonDecodeException e) {
+            // Expected
+        }
+        Object result = JsonBeanDecoder.create(json).skipUnknown()
+            .readObject(pointCls);
+        assertEquals(point(1, 3), result);
+    }
+
+    @Test
+    public void testReferences() throws Exception {
+        Object point = point(1, 2);
+        Object line = line("loop", point, point, null);
+        String json = JsonBeanEncoder.create().useReferences()
+            .writeObject(line).toJson();
+        Object result = JsonBeanDecoder.create(json).useReferences()
+            .readObject(lineCls);
+        assertSame(lineCls.getMethod("from").invoke(result),
+            lineCls.getMethod("to").invoke(result));
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public 
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import java.beans.ConstructorProperties;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.jdrupes.json.JsonBeanDecoder;
+import org.jdrupes.json.JsonBeanEncoder;
+import org.jdrupes.json.JsonDecodeException;
+import org.jdrupes.json.JsonObject;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.Test;
+
+public class ReferencesTests {
+
+    public static class Node {
+        private String name;
+        private Node next;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Node getNext() {
+            return next;
+        }
+
+        public void setNext(Node next) {
+            this.next = next;
+        }
+    }
+
+    public static class Point {
+        private final int x;
+
+        @ConstructorProperties({ "x" })
+        public Point(int x) {
+            this.x = x;
+        }
+
+        public int getX() {
+            return x;
+        }
+    }
+
+    public static class Shape {
+        private Point first;
+        private Point second;
+
+        public Point getFirst() {
+            return first;
+        }
+
+        public void setFirst(Point first) {
+            this.first = first;
+        }
+
+        public Point getSecond() {
+            return second;
+        }
+
+        public void setSecond(Point second) {
+            this.second = second;
+        }
+    }
+
+    @Test
+    public void testCycle() throws IOException, JsonDecodeException {
+        Node first = new Node();
+        first.setName("first");
+        Node second = new Node();
+        second.setName("second");
+        first.setNext(second);
+        second.setNext(first);
+        String json = JsonBeanEncoder.create().useReferences()
+            .writeObject(first).toJson();
+        assertEquals("{\"name\":\"first\",\"next\":{\"name\":\"second\","
+            + "\"next\":{\"$ref\":0}}}", json);
+
+        Node result = JsonBeanDecoder.create(json).useReferences()
+            .readObject(Node.class);
+        assertEquals("first", result.getName());
+        assertEquals("second", result.getNext().getName());
+        assertSame(result, result.getNext().getNext());
+    }
+
+    @Test
+    public void testShared() throws IOException, JsonDecodeException {
+        Shape shape = new Shape();
+        Point point = new Point(42);
+        shape.setFirst(point);
+        shape.setSecond(point);
+        String json = JsonBeanEncoder.create().useReferences()
+            .writeObject(shape).toJson();
+        assertEquals("{\"first\":{\"x\":42},\"second\":{\"$ref\":1}}", json);
+
+        Shape result = JsonBeanDecoder.create(json).useReferences()
+            .readObject(Shape.class);
+        assertEquals(42, result.getFirst().getX());
+        assertSame(result.getFirst(), result.getSecond());
+
+        // Without references, written twice
+        json = JsonBeanEncoder.create().writeObject(shape).toJson();
+        assertEquals("{\"first\":{\"x\":42},\"second\":{\"x\":42}}", json);
+    }
+
+    @Test
+    public void testMapsInList() throws IOException, JsonDecodeException {
+        Map<String, Object> entry = Map.of("key", "value");
+        List<Object> items = new ArrayList<>();
+        items.add(entry);
+        items.add(entry);
+        items.add(entry);
+        String json = JsonBeanEncoder.create().useReferences()
+            .writeObject(items).toJson();
+        assertEquals("[{\"key\":\"value\"},{\"$ref\":0},{\"$ref\":0}]", json);
+
+        @SuppressWarnings("unchecked")
+        List<Object> result = JsonBeanDecoder.create(json).useReferences()
+            .readArray(List.class);
+        assertEquals(3, result.size());
+        assertEquals("value", ((JsonObject) result.get(0)).get("key"));
+        assertSame(result.get(0), result.get(1));
+        assertSame(result.get(0), result.get(2));
+    }
+
+    @Test
+    public void testBadReference() {
+        assertThrows(JsonDecodeException.class, () -> JsonBeanDecoder
+            .create("{\"first\":{\"$ref\":5}}").useReferences()
+            .readObject(Shape.class));
+    }
+}
@@ -88,6 +88,39 @@ class SimpleEncoderTests extends Specification {
         json == '[1,2,3,4,5,6]'
     }
 
+    void "Numbers Test"() {
+        setup: "Create data"
+        Object[] a = [(byte)1, (short)2, 3, 4L, 1.5f, 2.5d,
+            new BigInteger("7"), new BigDecimal("8.5")];
+
+        when:
+        String json = JsonBeanEncoder.create().writeObject(a).toJson();
+
+        then:
+        json == '[1,2,3,4,1.5,2.5,7,8.5]'
+    }
+
+    enum Mode {
+        FAST {
+            @Override
+            public String toString() {
+                return "fast mode";
+            }
+        },
+        SLOW
+    };
+
+    void "Enum Test"() {
+        setup: "Create data"
+        Mode[] a = [Mode.FAST, Mode.SLOW];
+
+        when:
+        String json = JsonBeanEncoder.create().writeObject(a).toJson();
+
+        then:
+        json == '["FAST","SLOW"]'
+    }
+
     void "Basic Map Test"() {
         setup: "Create data"
         Map data = new HashMap();
@@ -0,0 +1,154 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public 
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.jdrupes.json.JsonBeanDecoder;
+import org.jdrupes.json.JsonBeanEncoder;
+import org.jdrupes.json.JsonDecodeException;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.Test;
+
+public class StreamingTests {
+
+    public static class Export {
+        private Iterable<String> names;
+        private Stream<Integer> values;
+
+        public Iterable<String> getNames() {
+            return names;
+        }
+
+        public void setNames(Iterable<String> names) {
+            this.names = names;
+        }
+
+        public Stream<Integer> getValues() {
+            return values;
+        }
+
+        public void setValues(Stream<Integer> values) {
+            this.values = values;
+        }
+    }
+
+    @Test
+    public void testStream() throws IOException {
+        String json = JsonBeanEncoder.create()
+            .writeStream(Stream.of("a", 1, true)).toJson();
+        assertEquals("[\"a\",1,true]", json);
+    }
+
+    @Test
+    public void testIterator() throws IOException {
+        String json = JsonBeanEncoder.create()
+            .writeIterator(Arrays.asList(1, 2).iterator()).toJson();
+        assertEquals("[1,2]", json);
+    }
+
+    @Test
+    public void testProperties() throws IOException, JsonDecodeException {
+        Export export = new Export();
+        export.setNames(() -> Arrays.asList("x", "y").iterator());
+        export.setValues(Stream.of(1, 2, 3));
+        String json = JsonBeanEncoder.create().writeObject(export).toJson();
+        assertEquals("{\"names\":[\"x\",\"y\"],\"values\":[1,2,3]}", json);
+
+        Export result = JsonBeanDecoder.create(json).readObject(Export.class);
+        assertEquals(Arrays.asList("x", "y"), result.getNames());
+        assertEquals(Arrays.asList(1L, 2L, 3L),
+            result.getValues().collect(Collectors.toList()));
+    }
+
+    public static class Team implements Iterable<String> {
+        private String name;
+        private List<String> members = new ArrayList<>();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<String> getMembers() {
+            return members;
+        }
+
+        public void setMembers(List<String> members) {
+            this.members = members;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return members.iterator();
+        }
+    }
+
+    @Test
+    public void testIterableBean() throws IOException, JsonDecodeException {
+        Team team = new Team();
+        team.setName("blue");
+        team.getMembers().add("alice");
+        String json = JsonBeanEncoder.create().writeObject(team).toJson();
+        assertEquals("{\"members\":[\"alice\"],\"name\":\"blue\"}", json);
+        Team result = JsonBeanDecoder.create(json).readObject(Team.class);
+        assertEquals("blue", result.getName());
+        assertEquals(List.of("alice"), result.getMembers());
+
+        // Iterable without properties
+        Iterable<Integer> numbers = () -> Arrays.asList(1, 2).iterator();
+        assertEquals("[1,2]",
+            JsonBeanEncoder.create().writeObject(numbers).toJson());
+    }
+
+    @Test
+    public void testFlushing() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonBeanEncoder encoder = JsonBeanEncoder.create(out);
+        Iterator<Integer> source = IntStream.range(0, 5000).iterator();
+        List<Integer> flushedSizes = new ArrayList<>();
+        encoder.writeIterator(new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                flushedSizes.add(out.size());
+                return source.next();
+            }
+        });
+        encoder.close();
+        // Output must have reached the stream while iterating
+        assertTrue(flushedSizes.get(1001) > 0);
+        assertEquals(IntStream.range(0, 5000).mapToObj(Integer::toString)
+            .collect(Collectors.joining(",", "[", "]")), out.toString());
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or 
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public 
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along 
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Random;
+import org.jdrupes.json.JsonBeanDecoder;
+import org.jdrupes.json.JsonBeanEncoder;
+import org.jdrupes.json.JsonDecodeException;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.Test;
+
+public class TemporalTests {
+
+    public static class Event {
+        private Date date;
+        private Instant instant;
+        private OffsetDateTime offsetDateTime;
+        private LocalDate localDate;
+        private LocalDateTime localDateTime;
+
+        public Date getDate() {
+            return date;
+        }
+
+        public void setDate(Date date) {
+            this.date = date;
+        }
+
+        public Instant getInstant() {
+            return instant;
+        }
+
+        public void setInstant(Instant instant) {
+            this.instant = instant;
+        }
+
+        public OffsetDateTime getOffsetDateTime() {
+            return offsetDateTime;
+        }
+
+        public void setOffsetDateTime(OffsetDateTime offsetDateTime) {
+            this.offsetDateTime = offsetDateTime;
+        }
+
+        public LocalDate getLocalDate() {
+            return localDate;
+        }
+
+        public void setLocalDate(LocalDate localDate) {
+            this.localDate = localDate;
+        }
+
+        public LocalDateTime getLocalDateTime() {
+            return localDateTime;
+        }
+
+        public void setLocalDateTime(LocalDateTime localDateTime) {
+            this.localDateTime = localDateTime;
+        }
+    }
+
+    private static Event sample() {
+        Event event = new Event();
+        event.setDate(new Date(Instant.parse("1983-12-17T20:07:12.345Z")
+            .toEpochMilli()));
+        event.setInstant(Instant.parse("2020-02-29T23:59:59.120Z"));
+        event.setOffsetDateTime(
+            OffsetDateTime.parse("2021-06-01T08:30:00.5+02:00"));
+        event.setLocalDate(LocalDate.of(1999, 12, 31));
+        event.setLocalDateTime(LocalDateTime.of(2000, 1, 1, 0, 0));
+        return event;
+    }
+
+    @Test
+    public void testIso() throws IOException, JsonDecodeException {
+        Event event = sample();
+        String json = JsonBeanEncoder.create().writeObject(event).toJson();
+        assertEquals("{\"date\":\"1983-12-17T20:07:12Z\","
+            + "\"instant\":\"2020-02-29T23:59:59.120Z\","
+            + "\"localDate\":\"1999-12-31\","
+            + "\"localDateTime\":\"2000-01-01T00:00:00\","
+            + "\"offsetDateTime\":\"2021-06-01T08:30:00.5+02:00\"}", json);
+
+        Event result = JsonBeanDecoder.create(json).readObject(Event.class);
+        assertEquals(event.getDate().getTime() / 1000 * 1000,
+            result.getDate().getTime());
+        assertEquals(event.getInstant(), result.getInstant());
+        assertEquals(event.getOffsetDateTime(), result.getOffsetDateTime());
+        assertEquals(event.getLocalDate(), result.getLocalDate());
+        assertEquals(event.getLocalDateTime(), result.getLocalDateTime());
+    }
+
+    @Test
+    public void testEpochMillis() throws IOException, JsonDecodeException {
+        Event event = sample();
+        String json = JsonBeanEncoder.create().useEpochMillis()
+            .writeObject(event).toJson();
+        assertEquals("{\"date\":440539632345,"
+            + "\"instant\":1583020799120,"
+            + "\"localDate\":\"1999-12-31\","
+            + "\"localDateTime\":\"2000-01-01T00:00:00\","
+            + "\"offsetDateTime\":1622529000500}", json);
+
+        Event result = JsonBeanDecoder.create(json).readObject(Event.class);
+        assertEquals(event.getDate(), result.getDate());
+        assertEquals(event.getInstant(), result.getInstant());
+        assertTrue(event.getOffsetDateTime()
+            .isEqual(result.getOffsetDateTime()));
+    }
+
+    @Test
+    public void testAgainstFormatters() throws IOException, JsonDecodeException {
+        Random random = new Random(42);
+        long min = Instant.parse("0000-01-01T00:00:00Z").getEpochSecond();
+        long max = Instant.parse("9999-12-31T23:59:59Z").getEpochSecond();
+        for (int i = 0; i < 2000; i++) {
+            long seconds = min + (long) (random.nextDouble() * (max - min));
+            // Vary the number of significant fraction digits
+            int scale = (int) Math.pow(10, random.nextInt(10));
+            int nanos = random.nextInt(1_000_000_000) / scale * scale;
+            Instant instant = Instant.ofEpochSecond(seconds, nanos);
+            OffsetDateTime odt = instant.atOffset(
+                ZoneOffset.ofTotalSeconds((random.nextInt(49) - 24) * 1800));
+            Object[] values = { instant, odt, odt.toLocalDate(),
+                odt.toLocalDateTime(), Date.from(instant) };
+            String json
+                = JsonBeanEncoder.create().writeObject(values).toJson();
+            assertEquals("[\"" + DateTimeFormatter.ISO_INSTANT.format(instant)
+                + "\",\"" + DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(odt)
+                + "\",\"" + DateTimeFormatter.ISO_LOCAL_DATE.format(odt)
+                + "\",\"" + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(odt)
+                + "\",\"" + DateTimeFormatter.ISO_INSTANT.format(
+                    instant.truncatedTo(ChronoUnit.SECONDS))
+                + "\"]", json);
+            String[] parts = json.substring(2, json.length() - 2)
+                .split("\",\"");
+            assertEquals(instant, JsonBeanDecoder.create("\"" + parts[0] + "\"")
+                .readObject(Instant.class));
+            assertEquals(odt, JsonBeanDecoder.create("\"" + parts[1] + "\"")
+                .readObject(OffsetDateTime.class));
+            assertEquals(odt.toLocalDate(),
+                JsonBeanDecoder.create("\"" + parts[2] + "\"")
+                    .readObject(LocalDate.class));
+            assertEquals(odt.toLocalDateTime(),
+                JsonBeanDecoder.create("\"" + parts[3] + "\"")
+                    .readObject(LocalDateTime.class));
+        }
+    }
+
+    @Test
+    public void testFallback() throws IOException, JsonDecodeException {
+        LocalDate date = LocalDate.of(12345, 6, 7);
+        String json = JsonBeanEncoder.create().writeObject(date).toJson();
+        assertEquals("\"+12345-06-07\"", json);
+        assertEquals(date,
+            JsonBeanDecoder.create(json).readObject(LocalDate.class));
+        assertThrows(RuntimeException.class, () -> JsonBeanDecoder
+            .create("\"2021-02-30\"").readObject(LocalDate.class));
+        assertThrows(RuntimeException.class, () -> JsonBeanDecoder
+            .create("\"2021-02-30T00:00:00Z\"").readObject(Instant.class));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.processing.Processor;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.jdrupes.json.JsonBeanEncoder;
+import static org.junit.Assert.*;
+
+/**
+ * Compiles classes for tests that need classes which cannot be
+ * part of the test sources (e.g. because they require a newer
+ * Java version or an annotation processor).
+ */
+public final class TestCompiler {
+
+    private TestCompiler() {
+    }
+
+    private static String classPath(Class<?>... classes)
+            throws URISyntaxException {
+        StringBuilder result = new StringBuilder();
+        for (Class<?> cls : classes) {
+            if (result.length() > 0) {
+                result.append(File.pathSeparator);
+            }
+            result.append(Path.of(cls.getProtectionDomain().getCodeSource()
+                .getLocation().toURI()));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Compiles the given source into the given directory and returns
+     * a class loader for the result. If no processors are specified,
+     * annotation processing is disabled.
+     *
+     * @param dir the directory
+     * @param className the fully qualified name of the class
+     * @param source the source
+     * @param processors the annotation processors
+     * @return the class loader
+     */
+    public static ClassLoader compile(Path dir, String className,
+            String source, Processor... processors)
+            throws IOException, URISyntaxException {
+        Path src = dir.resolve("src")
+            .resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(src.getParent());
+        Files.writeString(src, source);
+        Path out = dir.resolve("classes");
+        Files.createDirectories(out);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager files
+            = compiler.getStandardFileManager(null, null, null)) {
+            List<String> options = new ArrayList<>(List.of("-d",
+                out.toString(), "-classpath",
+                classPath(JsonBeanEncoder.class, JsonFactory.class)));
+            if (processors.length == 0) {
+                options.add("-proc:none");
+            }
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files,
+                null, options, null, files.getJavaFileObjects(src));
+            if (processors.length > 0) {
+                task.setProcessors(List.of(processors));
+            }
+            assertTrue(task.call());
+        }
+        return new URLClassLoader(new URL[] { out.toUri().toURL() },
+            TestCompiler.class.getClassLoader());
+    }
+}
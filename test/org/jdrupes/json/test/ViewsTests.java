@@ -0,0 +1,162 @@
+/*
+ * This file is part of the JDrupes JSON utilities project.
+ * Copyright (C) 2026  Michael N. Lipp
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.jdrupes.json.test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.jdrupes.json.JsonBeanEncoder;
+import org.jdrupes.json.JsonView;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.Test;
+
+public class ViewsTests {
+
+    public static class Address {
+        private String street;
+        private String city;
+
+        public Address() {
+        }
+
+        public Address(String street, String city) {
+            this.street = street;
+            this.city = city;
+        }
+
+        public String getStreet() {
+            return street;
+        }
+
+        public void setStreet(String street) {
+            this.street = street;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+    }
+
+    public static class Person {
+        private String name;
+        private Address address;
+        private List<Address> previous = new ArrayList<>();
+        private int expensiveCalls;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        public void setAddress(Address address) {
+            this.address = address;
+        }
+
+        public List<Address> getPrevious() {
+            return previous;
+        }
+
+        public void setPrevious(List<Address> previous) {
+            this.previous = previous;
+        }
+
+        public String getExpensive() {
+            expensiveCalls += 1;
+            return "expensive";
+        }
+    }
+
+    private static final JsonView SUMMARY
+        = JsonView.of("name", "address.city", "previous.city");
+
+    private static Person person() {
+        Person person = new Person();
+        person.setName("Alice");
+        person.setAddress(new Address("Main St", "Springfield"));
+        person.getPrevious().add(new Address("Elm St", "Shelbyville"));
+        return person;
+    }
+
+    @Test
+    public void testView() throws IOException {
+        Person person = person();
+        String json = JsonBeanEncoder.create().omitClass()
+            .writeObject(person, SUMMARY).toJson();
+        assertEquals("{\"address\":{\"city\":\"Springfield\"},"
+            + "\"name\":\"Alice\",\"previous\":[{\"city\":\"Shelbyville\"}]}",
+            json);
+        assertEquals(0, person.expensiveCalls);
+
+        // Same view again, now cached.
+        json = JsonBeanEncoder.create().writeObject(person, SUMMARY).toJson();
+        assertTrue(json.startsWith("{\"address\":{\"city\""));
+        assertEquals(0, person.expensiveCalls);
+
+        // No view
+        json = JsonBeanEncoder.create().writeObject(person).toJson();
+        assertTrue(json.contains("\"street\":\"Main St\""));
+        assertEquals(1, person.expensiveCalls);
+    }
+
+    @Test
+    public void testComplete() throws IOException {
+        String json = JsonBeanEncoder.create()
+            .writeObject(person(), JsonView.of("address", "address.city"))
+            .toJson();
+        assertEquals("{\"address\":{\"city\":\"Springfield\","
+            + "\"street\":\"Main St\"}}", json);
+    }
+
+    @Test
+    public void testContainers() throws IOException {
+        String json = JsonBeanEncoder.create().omitClass()
+            .writeObject(Map.of("p", person()), JsonView.of("name"))
+            .toJson();
+        assertEquals("{\"p\":{\"name\":\"Alice\"}}", json);
+        json = JsonBeanEncoder.create().omitClass()
+            .writeObject(List.of(person(), person()),
+                JsonView.of("name", "unknown"))
+            .toJson();
+        assertEquals("[{\"name\":\"Alice\"},{\"name\":\"Alice\"}]", json);
+    }
+
+    @Test
+    public void testEquality() throws IOException {
+        JsonView view = JsonView.of("name", "address.city");
+        assertEquals(view, JsonView.of("address.city", "name"));
+        assertEquals(view.hashCode(),
+            JsonView.of("address.city", "name").hashCode());
+        assertNotEquals(view, JsonView.of("name", "address"));
+        assertEquals(JsonBeanEncoder.create().writeObject(person(), view)
+            .toJson(), JsonBeanEncoder.create().writeObject(person(),
+                JsonView.of("address.city", "name")).toJson());
+    }
+}